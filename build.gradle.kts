@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("jacoco")
+    alias(libs.plugins.jmh)
 }
 
 group = "grapefruit"
@@ -26,3 +27,9 @@ tasks.withType<Test>() {
 tasks.jacocoTestReport {
     dependsOn(tasks.test)
 }
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    benchmarkMode = listOf("thrpt", "avgt")
+    profilers = listOf("gc")
+}
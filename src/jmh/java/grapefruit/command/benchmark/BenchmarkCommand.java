@@ -0,0 +1,32 @@
+package grapefruit.command.benchmark;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.argument.CommandChain;
+import grapefruit.command.argument.CommandChainFactory;
+import grapefruit.command.dispatcher.CommandContext;
+
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+final class BenchmarkCommand implements CommandModule<Object> {
+    private final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory;
+
+    private BenchmarkCommand(final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory) {
+        this.chainFactory = requireNonNull(chainFactory, "chainFactory cannot be null");
+    }
+
+    static BenchmarkCommand of(final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory) {
+        return new BenchmarkCommand(chainFactory);
+    }
+
+    @Override
+    public CommandChain<Object> chain(final CommandChainFactory<Object> factory) {
+        return this.chainFactory.apply(factory);
+    }
+
+    @Override
+    public void execute(final CommandContext<Object> context) {
+        // Do nothing, we're only interested in the dispatcher overhead
+    }
+}
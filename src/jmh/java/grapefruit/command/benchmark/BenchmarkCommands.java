@@ -0,0 +1,137 @@
+package grapefruit.command.benchmark;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.argument.CommandChain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static grapefruit.command.argument.mapper.builtin.NumericArgumentMapper.doubleMapper;
+import static grapefruit.command.argument.mapper.builtin.NumericArgumentMapper.intMapper;
+import static grapefruit.command.argument.mapper.builtin.StringArgumentMapper.greedy;
+import static grapefruit.command.argument.mapper.builtin.StringArgumentMapper.quotable;
+import static grapefruit.command.argument.mapper.builtin.StringArgumentMapper.word;
+
+/*
+ * Command sets shared between benchmarks. Every set is registered into the
+ * same dispatcher, so lookups have to discriminate between all of them.
+ */
+final class BenchmarkCommands {
+    static final int DEPTH = 12;
+    static final int DEEP_SIBLINGS = 8;
+    static final int WIDTH = 1000;
+
+    // Input that walks to the bottom of the deep tree
+    static final String DEEP_INPUT;
+    // Input that hits one of the root commands in the middle of the wide tree
+    static final String WIDE_INPUT = "wide" + (WIDTH / 2) + " sub1 value";
+    static final String FLAG_INPUT = "flags -abcdefgh --india 5 --juliet value -k 2.5 --lima \"some quoted text\"";
+    static final String QUOTED_INPUT = "quoted alice \"hello there, how are you doing today?\"";
+    static final String GREEDY_INPUT = "greedy hello there, how are you doing today?";
+    static final String NUMBER_INPUT = "-1250 64 318.75 0.0625 2147483647 -45.5 12 9.81";
+
+    static {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < DEPTH; i++) builder.append("level").append(i).append(' ');
+        DEEP_INPUT = builder.append("value").toString();
+    }
+
+    private BenchmarkCommands() {}
+
+    static List<CommandModule<Object>> all() {
+        final List<CommandModule<Object>> commands = new ArrayList<>();
+        commands.addAll(deep());
+        commands.addAll(wide());
+        commands.add(flagHeavy());
+        commands.add(quoted());
+        commands.add(greedyCommand());
+        return commands;
+    }
+
+    /*
+     * level0 level1 ... level11 <value>, with a number of sibling
+     * leaf commands at every level.
+     */
+    static List<CommandModule<Object>> deep() {
+        final List<CommandModule<Object>> commands = new ArrayList<>();
+        for (int depth = 0; depth <= DEPTH; depth++) {
+            final int routeLength = depth;
+            if (routeLength == DEPTH) {
+                commands.add(BenchmarkCommand.of(factory -> {
+                    CommandChain.LiteralBuilder<Object> chain = factory.newChain();
+                    for (int i = 0; i < routeLength; i++) chain = chain.then(factory.literal("level" + i).build());
+                    return chain.arguments()
+                            .then(factory.required("value", String.class).mapWith(word()).build())
+                            .build();
+                }));
+                continue;
+            }
+
+            for (int sibling = 0; sibling < DEEP_SIBLINGS; sibling++) {
+                final String name = "sibling" + sibling;
+                commands.add(BenchmarkCommand.of(factory -> {
+                    CommandChain.LiteralBuilder<Object> chain = factory.newChain();
+                    for (int i = 0; i < routeLength; i++) chain = chain.then(factory.literal("level" + i).build());
+                    return chain.then(factory.literal(name).build()).build();
+                }));
+            }
+        }
+
+        return commands;
+    }
+
+    // wide0 ... wide999, each with two subcommands taking a single argument
+    static List<CommandModule<Object>> wide() {
+        final List<CommandModule<Object>> commands = new ArrayList<>();
+        for (int i = 0; i < WIDTH; i++) {
+            final String name = "wide" + i;
+            for (int sub = 0; sub < 2; sub++) {
+                final String subName = "sub" + sub;
+                commands.add(BenchmarkCommand.of(factory -> factory.newChain()
+                        .then(factory.literal(name).aliases(name + "alias").build())
+                        .then(factory.literal(subName).build())
+                        .arguments()
+                        .then(factory.required("value", String.class).mapWith(word()).build())
+                        .build()));
+            }
+        }
+
+        return commands;
+    }
+
+    static CommandModule<Object> flagHeavy() {
+        return BenchmarkCommand.of(factory -> factory.newChain()
+                .then(factory.literal("flags").build())
+                .flags()
+                .then(factory.presenceFlag("alpha").assumeShorthand().build())
+                .then(factory.presenceFlag("bravo").assumeShorthand().build())
+                .then(factory.presenceFlag("charlie").assumeShorthand().build())
+                .then(factory.presenceFlag("delta").assumeShorthand().build())
+                .then(factory.presenceFlag("echo").assumeShorthand().build())
+                .then(factory.presenceFlag("foxtrot").assumeShorthand().build())
+                .then(factory.presenceFlag("golf").assumeShorthand().build())
+                .then(factory.presenceFlag("hotel").assumeShorthand().build())
+                .then(factory.valueFlag("india", Integer.class).assumeShorthand().mapWith(intMapper()).build())
+                .then(factory.valueFlag("juliet", String.class).assumeShorthand().mapWith(word()).build())
+                .then(factory.valueFlag("kilo", Double.class).assumeShorthand().mapWith(doubleMapper()).build())
+                .then(factory.valueFlag("lima", String.class).assumeShorthand().mapWith(quotable()).build())
+                .build());
+    }
+
+    static CommandModule<Object> quoted() {
+        return BenchmarkCommand.of(factory -> factory.newChain()
+                .then(factory.literal("quoted").build())
+                .arguments()
+                .then(factory.required("target", String.class).mapWith(word()).build())
+                .then(factory.required("message", String.class).mapWith(quotable()).build())
+                .build());
+    }
+
+    static CommandModule<Object> greedyCommand() {
+        return BenchmarkCommand.of(factory -> factory.newChain()
+                .then(factory.literal("greedy").build())
+                .arguments()
+                .then(factory.required("message", String.class).mapWith(greedy()).build())
+                .build());
+    }
+}
@@ -0,0 +1,52 @@
+package grapefruit.command.benchmark;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.argument.CommandChain;
+import grapefruit.command.argument.CommandChainFactory;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.tree.CommandGraph;
+import grapefruit.command.tree.NoSuchCommandException;
+import grapefruit.command.tree.node.InternalCommandNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandGraphBenchmark {
+    private CommandGraph<Object> graph;
+
+    @Setup
+    public void setup() {
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        this.graph = new CommandGraph<>();
+        for (final CommandModule<Object> command : BenchmarkCommands.all()) {
+            this.graph.insert(command.chain(factory), command);
+        }
+    }
+
+    @Benchmark
+    public InternalCommandNode<Object> queryDeep() throws NoSuchCommandException {
+        return this.graph.query0(CommandInputTokenizer.wrap(BenchmarkCommands.DEEP_INPUT));
+    }
+
+    @Benchmark
+    public InternalCommandNode<Object> queryWide() throws NoSuchCommandException {
+        return this.graph.query0(CommandInputTokenizer.wrap(BenchmarkCommands.WIDE_INPUT));
+    }
+
+    @Benchmark
+    public InternalCommandNode<Object> queryWideAlias() throws NoSuchCommandException {
+        return this.graph.query0(CommandInputTokenizer.wrap("WIDE500ALIAS sub0 value"));
+    }
+}
@@ -0,0 +1,78 @@
+package grapefruit.command.benchmark;
+
+import grapefruit.command.completion.CommandCompletion;
+import grapefruit.command.dispatcher.CommandDispatcher;
+import grapefruit.command.dispatcher.CompletionSession;
+import grapefruit.command.dispatcher.config.DispatcherConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompletionBenchmark {
+    private final Object source = new Object();
+    // Two inputs that only differ in the last token, as if the user was typing
+    private static final String[] KEYSTROKES = {
+            "flags -abcdefgh --india 5 --juliet value -k 2.5 --li",
+            "flags -abcdefgh --india 5 --juliet value -k 2.5 --lim"
+    };
+    private CommandDispatcher<Object> dispatcher;
+    private CompletionSession<Object> session;
+    private int keystroke;
+
+    @Setup
+    public void setup() {
+        this.dispatcher = CommandDispatcher.using(DispatcherConfig.builder()
+                .eagerFlagCompletions()
+                .build());
+        this.dispatcher.register(BenchmarkCommands.all());
+        this.session = this.dispatcher.completionSession(this.source);
+    }
+
+    @Benchmark
+    public List<CommandCompletion> emptyInput() {
+        return this.dispatcher.complete(this.source, "");
+    }
+
+    @Benchmark
+    public List<CommandCompletion> partialRootLiteral() {
+        return this.dispatcher.complete(this.source, "wide5");
+    }
+
+    @Benchmark
+    public List<CommandCompletion> partialDeepLiteral() {
+        return this.dispatcher.complete(this.source, "level0 level1 level2 level3 lev");
+    }
+
+    @Benchmark
+    public List<CommandCompletion> flagNames() {
+        return this.dispatcher.complete(this.source, "flags -ab --");
+    }
+
+    @Benchmark
+    public List<CommandCompletion> flagValue() {
+        return this.dispatcher.complete(this.source, "flags --india ");
+    }
+
+    @Benchmark
+    public List<CommandCompletion> keystroke() {
+        return this.dispatcher.complete(this.source, KEYSTROKES[this.keystroke++ & 1]);
+    }
+
+    @Benchmark
+    public List<CommandCompletion> sessionKeystroke() {
+        return this.session.complete(KEYSTROKES[this.keystroke++ & 1]);
+    }
+}
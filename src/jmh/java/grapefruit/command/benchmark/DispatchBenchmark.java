@@ -0,0 +1,88 @@
+package grapefruit.command.benchmark;
+
+import grapefruit.command.CommandException;
+import grapefruit.command.dispatcher.CommandDispatcher;
+import grapefruit.command.dispatcher.DispatchOutcome;
+import grapefruit.command.dispatcher.config.DispatcherConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchBenchmark {
+    private static final int SCRIPT_LENGTH = 100;
+    private final Object source = new Object();
+    private final List<String> script = new ArrayList<>();
+    private CommandDispatcher<Object> dispatcher;
+    private CommandDispatcher<Object> cachingDispatcher;
+
+    @Setup
+    public void setup() {
+        this.dispatcher = CommandDispatcher.using(DispatcherConfig.builder().build());
+        this.dispatcher.register(BenchmarkCommands.all());
+        this.cachingDispatcher = CommandDispatcher.using(DispatcherConfig.builder()
+                .parseCache(64, Duration.ofMinutes(10))
+                .build());
+        this.cachingDispatcher.register(BenchmarkCommands.all());
+        for (int i = 0; i < SCRIPT_LENGTH; i++) this.script.add(i % 2 == 0 ? BenchmarkCommands.DEEP_INPUT : BenchmarkCommands.FLAG_INPUT);
+    }
+
+    @Benchmark
+    public void deepTree() throws CommandException {
+        this.dispatcher.dispatch(this.source, BenchmarkCommands.DEEP_INPUT);
+    }
+
+    @Benchmark
+    public void wideTree() throws CommandException {
+        this.dispatcher.dispatch(this.source, BenchmarkCommands.WIDE_INPUT);
+    }
+
+    @Benchmark
+    public void flagHeavy() throws CommandException {
+        this.dispatcher.dispatch(this.source, BenchmarkCommands.FLAG_INPUT);
+    }
+
+    @Benchmark
+    public void flagHeavyCached() throws CommandException {
+        this.cachingDispatcher.dispatch(this.source, BenchmarkCommands.FLAG_INPUT);
+    }
+
+    @Benchmark
+    public void quotedArgument() throws CommandException {
+        this.dispatcher.dispatch(this.source, BenchmarkCommands.QUOTED_INPUT);
+    }
+
+    @Benchmark
+    public void greedyArgument() throws CommandException {
+        this.dispatcher.dispatch(this.source, BenchmarkCommands.GREEDY_INPUT);
+    }
+
+    @Benchmark
+    public void scriptLoop() throws CommandException {
+        for (final String command : this.script) this.dispatcher.dispatch(this.source, command);
+    }
+
+    @Benchmark
+    public List<DispatchOutcome<Object>> scriptBatch() {
+        return this.dispatcher.dispatchAll(this.source, this.script);
+    }
+
+    @Benchmark
+    public List<DispatchOutcome<Object>> scriptParallel() {
+        return this.dispatcher.dispatchAllParallel(this.source, this.script);
+    }
+}
@@ -0,0 +1,66 @@
+package grapefruit.command.benchmark;
+
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    @Benchmark
+    public void readWords(final Blackhole blackhole) throws MissingInputException {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(BenchmarkCommands.DEEP_INPUT);
+        while (input.canReadNonWhitespace()) blackhole.consume(input.readWord());
+    }
+
+    @Benchmark
+    public void peekAndReadWords(final Blackhole blackhole) throws MissingInputException {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(BenchmarkCommands.FLAG_INPUT);
+        while (input.canReadNonWhitespace()) {
+            blackhole.consume(input.peekWord());
+            blackhole.consume(input.readQuotable());
+        }
+    }
+
+    @Benchmark
+    public void readQuotable(final Blackhole blackhole) throws MissingInputException {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(BenchmarkCommands.QUOTED_INPUT);
+        blackhole.consume(input.readWord());
+        blackhole.consume(input.readWord());
+        blackhole.consume(input.readQuotable());
+    }
+
+    @Benchmark
+    public void readRemaining(final Blackhole blackhole) throws MissingInputException {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(BenchmarkCommands.GREEDY_INPUT);
+        blackhole.consume(input.readWord());
+        blackhole.consume(input.readRemaining());
+    }
+
+    @Benchmark
+    public void parseNumberWords(final Blackhole blackhole) throws MissingInputException {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(BenchmarkCommands.NUMBER_INPUT);
+        while (input.canReadNonWhitespace()) blackhole.consume(Double.parseDouble(input.readWord()));
+    }
+
+    @Benchmark
+    public void readNumbers(final Blackhole blackhole) throws MissingInputException {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(BenchmarkCommands.NUMBER_INPUT);
+        while (input.canReadNonWhitespace()) {
+            if (input.tryReadDouble(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)) blackhole.consume(input.lastDouble());
+        }
+    }
+}
@@ -1,16 +1,30 @@
 package grapefruit.command;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.io.Serial;
 
 public class CommandException extends Exception {
     @Serial
     private static final long serialVersionUID = -3461202024417516177L;
+    /*
+     * Command exceptions are thrown for every mistyped command or bad
+     * argument, and are meant to be reported to the user rather than
+     * debugged, so capturing a stack trace for them is skipped unless
+     * enabled with -Dgrapefruit.command.stackTraces=true.
+     */
+    static final boolean STACK_TRACES = Boolean.getBoolean("grapefruit.command.stackTraces");
 
     public CommandException() {
-        super();
+        this(null, STACK_TRACES);
     }
 
     public CommandException(final Throwable cause) {
-        super(cause);
+        this(cause, STACK_TRACES);
+    }
+
+    protected CommandException(final @Nullable Throwable cause, final boolean writableStackTrace) {
+        // Same message as Throwable(Throwable) would set
+        super(cause == null ? null : cause.toString(), cause, true, writableStackTrace);
     }
 }
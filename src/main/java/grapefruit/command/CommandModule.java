@@ -9,4 +9,21 @@ public interface CommandModule<S> {
     CommandChain<S> chain(final CommandChainFactory<S> factory);
 
     void execute(final CommandContext<S> context);
+
+    /*
+     * Commands that return true are always executed on the thread that
+     * dispatched them, even if they were dispatched asynchronously.
+     */
+    default boolean isSynchronous() {
+        return false;
+    }
+
+    /*
+     * Commands that return true may be executed in parallel with other
+     * such commands of the same batch, instead of in submission order.
+     * See CommandDispatcher#dispatchAllParallel.
+     */
+    default boolean isOrderInsensitive() {
+        return false;
+    }
 }
@@ -10,22 +10,47 @@ import static java.util.Objects.requireNonNull;
 public class CommandArgumentException extends CommandException {
     @Serial
     private static final long serialVersionUID = -8437065396865235634L;
-    private final String consumed;
     private final String argument;
-    private final String remaining;
+    /*
+     * When created from a tokenizer, only the input and the cursor are
+     * stored, and the consumed and remaining parts are cut from the input
+     * the first time they are requested.
+     */
+    private final @Nullable String input;
+    private final int cursor;
+    private @Nullable String consumed;
+    private @Nullable String remaining;
 
     public CommandArgumentException(final @Nullable CommandException cause, final String consumed, final String argument, final String remaining) {
         super(cause);
         this.consumed = requireNonNull(consumed, "consumed cannot be null");
         this.argument = requireNonNull(argument, "argument cannot be null");
         this.remaining = requireNonNull(remaining, "remaining cannot be null");
+        this.input = null;
+        this.cursor = consumed.length();
     }
 
     public CommandArgumentException(final String consumed, final String argument, final String remaining) {
         this(null, consumed, argument, remaining);
     }
 
+    public CommandArgumentException(final @Nullable CommandException cause, final String input, final int cursor, final String argument) {
+        super(cause);
+        this.input = requireNonNull(input, "input cannot be null");
+        this.argument = requireNonNull(argument, "argument cannot be null");
+        if (cursor < 0 || cursor > input.length()) {
+            throw new IndexOutOfBoundsException("Cursor %d is out of bounds for input of length %d".formatted(cursor, input.length()));
+        }
+
+        this.cursor = cursor;
+    }
+
+    public CommandArgumentException(final String input, final int cursor, final String argument) {
+        this(null, input, cursor, argument);
+    }
+
     public String consumed() {
+        if (this.consumed == null) this.consumed = requireInput().substring(0, this.cursor);
         return this.consumed;
     }
 
@@ -34,6 +59,17 @@ public class CommandArgumentException extends CommandException {
     }
 
     public String remaining() {
+        if (this.remaining == null) this.remaining = requireInput().substring(this.cursor);
         return this.remaining;
     }
+
+    private String requireInput() {
+        // Only null if both parts were passed to the constructor
+        return requireNonNull(this.input);
+    }
+
+    public interface Factory<X extends CommandArgumentException> {
+
+        X create(final String input, final int cursor, final String argument);
+    }
 }
@@ -284,5 +284,10 @@ public abstract class CommandArgumentImpl<S, T> implements CommandArgument<S, T>
             // Presence flags always return true if set.
             return true;
         }
+
+        @Override
+        public boolean isPure() {
+            return true;
+        }
     }
 }
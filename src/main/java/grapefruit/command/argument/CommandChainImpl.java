@@ -17,24 +17,25 @@ final class CommandChainImpl<S> implements CommandChain<S> {
             final List<CommandArgument.Required<S, ?>> arguments,
             final List<CommandArgument.Flag<S, ?>> flags
     ) {
-        this.route = requireNonNull(route, "route cannot be null");
-        this.arguments = requireNonNull(arguments, "arguments cannot be null");
-        this.flags = requireNonNull(flags, "flags cannot be null");
+        // Copy once here, so that the getters can return the lists as-is
+        this.route = List.copyOf(requireNonNull(route, "route cannot be null"));
+        this.arguments = List.copyOf(requireNonNull(arguments, "arguments cannot be null"));
+        this.flags = List.copyOf(requireNonNull(flags, "flags cannot be null"));
     }
 
     @Override
     public List<CommandArgument.Literal<S>> route() {
-        return List.copyOf(this.route);
+        return this.route;
     }
 
     @Override
     public List<CommandArgument.Required<S, ?>> arguments() {
-        return List.copyOf(this.arguments);
+        return this.arguments;
     }
 
     @Override
     public List<CommandArgument.Flag<S, ?>> flags() {
-        return List.copyOf(this.flags);
+        return this.flags;
     }
 
     static <S> CommandChain.LiteralBuilder<S> begin() {
@@ -9,4 +9,8 @@ public class DuplicateFlagException extends CommandArgumentException {
     public DuplicateFlagException(final String consumed, final String argument, final String remaining) {
         super(consumed, argument, remaining);
     }
+
+    public DuplicateFlagException(final String input, final int cursor, final String argument) {
+        super(input, cursor, argument);
+    }
 }
@@ -18,6 +18,15 @@ public class UnrecognizedFlagException extends CommandArgumentException {
         this(consumed, argument, remaining, argument);
     }
 
+    public UnrecognizedFlagException(final String input, final int cursor, final String argument, final String exactFlag) {
+        super(input, cursor, argument);
+        this.exactFlag = requireNonNull(exactFlag, "exactFlag");
+    }
+
+    public UnrecognizedFlagException(final String input, final int cursor, final String argument) {
+        this(input, cursor, argument, argument);
+    }
+
     public String exactFlag() {
         return this.exactFlag;
     }
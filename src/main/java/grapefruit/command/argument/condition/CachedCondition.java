@@ -0,0 +1,13 @@
+package grapefruit.command.argument.condition;
+
+/*
+ * A condition that remembers whether it passed or failed for a given
+ * source. Only suitable for conditions whose outcome depends on the
+ * source alone, such as permission checks.
+ */
+public interface CachedCondition<S> extends CommandCondition<S> {
+
+    void invalidate(final S source);
+
+    void invalidateAll();
+}
@@ -0,0 +1,64 @@
+package grapefruit.command.argument.condition;
+
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.util.ExpiringCache;
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+final class CachedConditionImpl<S> implements CachedCondition<S> {
+    private final CommandCondition<S> condition;
+    // An empty optional means the condition passed
+    private final ExpiringCache<S, Optional<UnfulfilledConditionException>> results;
+
+    CachedConditionImpl(final CommandCondition<S> condition, final Duration ttl, final int maxSize) {
+        this.condition = requireNonNull(condition, "condition cannot be null");
+        this.results = ExpiringCache.create(maxSize, ttl);
+    }
+
+    @Override
+    public void test(final CommandContext<S> context) throws UnfulfilledConditionException {
+        final S source = context.source();
+        @Nullable Optional<UnfulfilledConditionException> result = this.results.get(source);
+        if (result == null) {
+            try {
+                this.condition.test(context);
+                result = Optional.empty();
+            } catch (final UnfulfilledConditionException ex) {
+                result = Optional.of(ex);
+            }
+
+            this.results.put(source, result);
+        }
+
+        if (result.isPresent()) throw result.orElseThrow();
+    }
+
+    // A cache miss costs as much as the wrapped condition
+    @Override
+    public int cost() {
+        return this.condition.cost();
+    }
+
+    @Override
+    public void invalidate(final S source) {
+        this.results.invalidate(source);
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.results.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("condition", this.condition)
+                .append("results", this.results)
+                .toString();
+    }
+}
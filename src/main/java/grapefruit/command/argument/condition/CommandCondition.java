@@ -2,19 +2,48 @@ package grapefruit.command.argument.condition;
 
 import grapefruit.command.dispatcher.CommandContext;
 
+import java.time.Duration;
 import java.util.List;
 
 public interface CommandCondition<S> {
 
     void test(final CommandContext<S> context) throws UnfulfilledConditionException;
 
+    /*
+     * A relative, non-negative estimate of how expensive this condition is
+     * to test. Composite conditions test their cheapest parts first.
+     */
+    default int cost() {
+        return 0;
+    }
+
+    static <S> CommandCondition<S> withCost(final CommandCondition<S> condition, final int cost) {
+        return new CostHintCondition<>(condition, cost);
+    }
+
+    /*
+     * Caches the outcome of the condition per source for the given amount
+     * of time, holding at most maxSize sources at once.
+     */
+    static <S> CachedCondition<S> cached(final CommandCondition<S> condition, final Duration ttl, final int maxSize) {
+        return new CachedConditionImpl<>(condition, ttl, maxSize);
+    }
+
     @SafeVarargs
     static <S> CommandCondition<S> and(final CommandCondition<S>... conditions) {
-        return new AndCondition<>(List.of(conditions));
+        return and(List.of(conditions));
+    }
+
+    static <S> CommandCondition<S> and(final List<CommandCondition<S>> conditions) {
+        return new AndCondition<>(conditions);
     }
 
     @SafeVarargs
     static <S> CommandCondition<S> or(final CommandCondition<S>... conditions) {
-        return new OrCondition<>(List.of(conditions));
+        return or(List.of(conditions));
+    }
+
+    static <S> CommandCondition<S> or(final List<CommandCondition<S>> conditions) {
+        return new OrCondition<>(conditions);
     }
 }
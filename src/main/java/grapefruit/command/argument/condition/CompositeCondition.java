@@ -0,0 +1,42 @@
+package grapefruit.command.argument.condition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+abstract class CompositeCondition<S> implements CommandCondition<S> {
+    protected final CommandCondition<S>[] conditions;
+    private final int cost;
+
+    @SuppressWarnings("unchecked")
+    CompositeCondition(final List<CommandCondition<S>> conditions) {
+        requireNonNull(conditions, "conditions cannot be null");
+        final List<CommandCondition<S>> flattened = new ArrayList<>();
+        for (final CommandCondition<S> condition : conditions) {
+            requireNonNull(condition, "condition cannot be null");
+            // Nested conditions of the same kind are merged into this one
+            if (condition.getClass() == getClass()) {
+                flattened.addAll(Arrays.asList(((CompositeCondition<S>) condition).conditions));
+            } else {
+                flattened.add(condition);
+            }
+        }
+
+        // Evaluate cheap conditions first. List#sort is stable, so equally
+        // expensive conditions keep their original order.
+        flattened.sort(Comparator.comparingInt(CommandCondition::cost));
+        this.conditions = flattened.toArray(CommandCondition[]::new);
+
+        long cost = 0;
+        for (final CommandCondition<S> condition : this.conditions) cost += condition.cost();
+        this.cost = (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int cost() {
+        return this.cost;
+    }
+}
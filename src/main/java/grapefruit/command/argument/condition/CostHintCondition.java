@@ -0,0 +1,35 @@
+package grapefruit.command.argument.condition;
+
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.util.ToStringer;
+
+import static java.util.Objects.requireNonNull;
+
+final class CostHintCondition<S> implements CommandCondition<S> {
+    private final CommandCondition<S> condition;
+    private final int cost;
+
+    CostHintCondition(final CommandCondition<S> condition, final int cost) {
+        this.condition = requireNonNull(condition, "condition cannot be null");
+        if (cost < 0) throw new IllegalArgumentException("cost cannot be negative");
+        this.cost = cost;
+    }
+
+    @Override
+    public void test(final CommandContext<S> context) throws UnfulfilledConditionException {
+        this.condition.test(context);
+    }
+
+    @Override
+    public int cost() {
+        return this.cost;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("condition", this.condition)
+                .append("cost", this.cost)
+                .toString();
+    }
+}
@@ -5,6 +5,8 @@ import grapefruit.command.completion.CompletionBuilder;
 import grapefruit.command.dispatcher.CommandContext;
 import io.leangen.geantyref.TypeToken;
 
+import java.time.Duration;
+
 import static java.util.Objects.requireNonNull;
 
 public abstract class AbstractArgumentMapper<S, T> implements ArgumentMapper<S, T> {
@@ -44,4 +46,9 @@ public abstract class AbstractArgumentMapper<S, T> implements ArgumentMapper<S,
     public ArgumentMapper<S, T> filtering(final Filter<S, T> filter) {
         return new ModifiedArgumentMapper<>(this, filter);
     }
+
+    @Override
+    public CachingArgumentMapper<S, T> caching(final int maxSize, final Duration ttl, final boolean perSource) {
+        return new CachingArgumentMapper<>(this, maxSize, ttl, perSource);
+    }
 }
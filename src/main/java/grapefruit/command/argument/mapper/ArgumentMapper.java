@@ -6,6 +6,8 @@ import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.dispatcher.input.MissingInputException;
 import io.leangen.geantyref.TypeToken;
 
+import java.time.Duration;
+
 public interface ArgumentMapper<S, T> extends CompletionProvider<S> {
 
     TypeToken<T> type();
@@ -14,6 +16,15 @@ public interface ArgumentMapper<S, T> extends CompletionProvider<S> {
 
     T tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException;
 
+    /*
+     * Pure mappers map the same input to the same immutable value,
+     * regardless of the source, the context and any other state, so their
+     * results can be cached by the dispatcher.
+     */
+    default boolean isPure() {
+        return false;
+    }
+
     @FunctionalInterface
     interface Modifier<S, I, O> {
 
@@ -35,4 +46,15 @@ public interface ArgumentMapper<S, T> extends CompletionProvider<S> {
     <O> ArgumentMapper<S, O> mapping(final Modifier<S, T, O> modifier);
 
     ArgumentMapper<S, T> filtering(final Filter<S, T> filter);
+
+    /*
+     * Caches at most maxSize results of this mapper for ttl, so that mapping
+     * the same token again skips this mapper. If perSource is true, results
+     * are only reused for the source they were mapped for.
+     */
+    CachingArgumentMapper<S, T> caching(final int maxSize, final Duration ttl, final boolean perSource);
+
+    default CachingArgumentMapper<S, T> caching(final int maxSize, final Duration ttl) {
+        return caching(maxSize, ttl, false);
+    }
 }
@@ -0,0 +1,116 @@
+package grapefruit.command.argument.mapper;
+
+import grapefruit.command.completion.CompletionAccumulator;
+import grapefruit.command.completion.CompletionBuilder;
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.ExpiringCache;
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Memoizes the results of another mapper, keyed by the token they were
+ * mapped from, and optionally by the source as well. Only results mapped
+ * from exactly one word are cached, since that is the only token that can
+ * be checked before the delegate runs, so mappers reading quoted strings
+ * or the remaining input keep working, they just miss the cache. Failures
+ * are never cached.
+ */
+public final class CachingArgumentMapper<S, T> extends AbstractArgumentMapper<S, T> {
+    private final ArgumentMapper<S, T> delegate;
+    private final ExpiringCache<CacheKey, T> cache;
+    private final boolean perSource;
+
+    CachingArgumentMapper(final ArgumentMapper<S, T> delegate, final int maxSize, final Duration ttl, final boolean perSource) {
+        super(
+                requireNonNull(delegate, "delegate cannot be null").type(),
+                delegate.isTerminal()
+        );
+        this.delegate = delegate;
+        this.cache = ExpiringCache.create(maxSize, ttl);
+        this.perSource = perSource;
+    }
+
+    @Override
+    public T tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        final String token = input.peekWord();
+        final CacheKey key = new CacheKey(this.perSource ? context.source() : null, token);
+        final @Nullable T cached = this.cache.get(key);
+        if (cached != null) {
+            // Consume the token the same way the delegate did when the result was cached
+            input.readWord();
+            return cached;
+        }
+
+        final int from = input.cursor();
+        final T result = this.delegate.tryMap(context, input);
+        if (result != null && input.input().substring(from, input.cursor()).strip().equals(token)) this.cache.put(key, result);
+        return result;
+    }
+
+    @Override
+    public CompletionAccumulator complete(final CommandContext<S> context, final CompletionBuilder builder) {
+        return this.delegate.complete(context, builder);
+    }
+
+    @Override
+    public CompletableFuture<CompletionAccumulator> completeAsync(final CommandContext<S> context, final CompletionBuilder builder) {
+        return this.delegate.completeAsync(context, builder);
+    }
+
+    @Override
+    public boolean isPure() {
+        return this.delegate.isPure();
+    }
+
+    public long hits() {
+        return this.cache.hits();
+    }
+
+    public long misses() {
+        return this.cache.misses();
+    }
+
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("delegate", this.delegate)
+                .append("cache", this.cache)
+                .append("perSource", this.perSource)
+                .toString();
+    }
+
+    private static final class CacheKey {
+        private final @Nullable Object source;
+        private final String token;
+
+        private CacheKey(final @Nullable Object source, final String token) {
+            this.source = source;
+            this.token = token;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final CacheKey key = (CacheKey) o;
+            return Objects.equals(this.source, key.source) && this.token.equals(key.token);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(this.source) + this.token.hashCode();
+        }
+    }
+}
@@ -7,6 +7,8 @@ import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.dispatcher.input.MissingInputException;
 import io.leangen.geantyref.TypeToken;
 
+import java.util.concurrent.CompletableFuture;
+
 import static java.util.Objects.requireNonNull;
 
 final class ModifiedArgumentMapper<S, I, O> extends AbstractArgumentMapper<S, O> {
@@ -32,4 +34,9 @@ final class ModifiedArgumentMapper<S, I, O> extends AbstractArgumentMapper<S, O>
     public CompletionAccumulator complete(final CommandContext<S> context, final CompletionBuilder builder) {
         return this.delegate.complete(context, builder);
     }
+
+    @Override
+    public CompletableFuture<CompletionAccumulator> completeAsync(final CommandContext<S> context, final CompletionBuilder builder) {
+        return this.delegate.completeAsync(context, builder);
+    }
 }
@@ -0,0 +1,16 @@
+package grapefruit.command.argument.mapper;
+
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.key.Key;
+
+/*
+ * Mappers of primitive values, which the dispatcher lets store their
+ * result into the context directly, so that it never gets boxed. The
+ * value can then be read with CommandContext#getInt and the like.
+ */
+public interface PrimitiveArgumentMapper<S, T> extends ArgumentMapper<S, T> {
+
+    void mapInto(final CommandContext<S> context, final CommandInputTokenizer input, final Key<T> key) throws ArgumentMappingException, MissingInputException;
+}
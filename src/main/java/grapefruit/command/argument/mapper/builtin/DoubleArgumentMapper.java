@@ -0,0 +1,64 @@
+package grapefruit.command.argument.mapper.builtin;
+
+import grapefruit.command.argument.mapper.AbstractArgumentMapper;
+import grapefruit.command.argument.mapper.ArgumentMappingException;
+import grapefruit.command.argument.mapper.PrimitiveArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.NumericArgumentMapper.NumberMappingException;
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.key.Key;
+
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+public final class DoubleArgumentMapper<S> extends AbstractArgumentMapper<S, Double> implements PrimitiveArgumentMapper<S, Double> {
+    private final double min;
+    private final double max;
+    private final Supplier<ArgumentMappingException> exceptionSupplier;
+
+    private DoubleArgumentMapper(final double min, final double max, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        super(Double.class, false);
+        if (min > max) throw new IllegalArgumentException("min cannot be greater than max");
+        this.min = min;
+        this.max = max;
+        this.exceptionSupplier = requireNonNull(exceptionSupplier, "exceptionSupplier cannot be null");
+    }
+
+    public static <S> DoubleArgumentMapper<S> doubleMapper() {
+        return doubleMapper(NumberMappingException::new);
+    }
+
+    public static <S> DoubleArgumentMapper<S> doubleMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return doubleMapper(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, exceptionSupplier);
+    }
+
+    public static <S> DoubleArgumentMapper<S> doubleMapper(final double min, final double max) {
+        return doubleMapper(min, max, NumberMappingException::new);
+    }
+
+    public static <S> DoubleArgumentMapper<S> doubleMapper(final double min, final double max, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return new DoubleArgumentMapper<>(min, max, exceptionSupplier);
+    }
+
+    public double tryMapDouble(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        if (!input.tryReadDouble(this.min, this.max)) throw this.exceptionSupplier.get();
+        return input.lastDouble();
+    }
+
+    @Override
+    public Double tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        return tryMapDouble(context, input);
+    }
+
+    @Override
+    public void mapInto(final CommandContext<S> context, final CommandInputTokenizer input, final Key<Double> key) throws ArgumentMappingException, MissingInputException {
+        context.storeDouble(key, tryMapDouble(context, input));
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+}
@@ -7,24 +7,49 @@ import grapefruit.command.completion.CompletionBuilder;
 import grapefruit.command.dispatcher.CommandContext;
 import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.StringUtil;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
-import java.util.function.BiPredicate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static grapefruit.command.util.StringUtil.foldCase;
 import static java.util.Objects.requireNonNull;
 
 public final class EnumArgumentMapper<S, E extends Enum<E>> extends AbstractArgumentMapper<S, E> {
-    private final Class<E> type;
     private final EnumResolver<E> resolver;
     private final Supplier<ArgumentMappingException> exceptionSupplier;
+    // Constants mapped to the lookup key of their name, see EnumResolver#key
+    private final Map<String, E> constants;
+    /*
+     * Completions sorted by their case-folded form, so that the ones starting
+     * with a given prefix are adjacent and can be found with a binary search.
+     */
+    private final String[] completions;
+    private final String[] foldedCompletions;
 
     private EnumArgumentMapper(final Class<E> type, final EnumResolver<E> resolver, final Supplier<ArgumentMappingException> exceptionSupplier) {
         super(type, false);
-        this.type = requireNonNull(type, "type cannot be null");
+        requireNonNull(type, "type cannot be null");
         this.resolver = requireNonNull(resolver, "resolver cannot be null");
         this.exceptionSupplier = requireNonNull(exceptionSupplier, "exceptionSupplier cannot be null");
+
+        final E[] constants = type.getEnumConstants();
+        final Map<String, E> lookup = new HashMap<>();
+        // If multiple constants share a key, the first declared one wins
+        for (final E constant : constants) lookup.putIfAbsent(resolver.key(constant.name()), constant);
+        this.constants = Map.copyOf(lookup);
+
+        this.completions = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) this.completions[i] = resolver.complete(constants[i]);
+        Arrays.sort(this.completions, Comparator.comparing(StringUtil::foldCase));
+        this.foldedCompletions = new String[this.completions.length];
+        for (int i = 0; i < this.completions.length; i++) this.foldedCompletions[i] = foldCase(this.completions[i]);
     }
 
     public static <S, E extends Enum<E>> EnumArgumentMapper<S, E> strict(final Class<E> type, final Supplier<ArgumentMappingException> exceptionSupplier) {
@@ -45,46 +70,70 @@ public final class EnumArgumentMapper<S, E extends Enum<E>> extends AbstractArgu
 
     @Override
     public E tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
-        final String value = input.readWord();
-        for (final E e : this.type.getEnumConstants()) {
-            if (this.resolver.matches(e, value)) return e;
+        final @Nullable E result = this.constants.get(this.resolver.key(input.readWord()));
+        if (result == null) throw this.exceptionSupplier.get();
+        return result;
+    }
+
+    @Override
+    public CompletionAccumulator complete(final CommandContext<S> context, final CompletionBuilder builder) {
+        final String prefix = foldCase(builder.input());
+        final int from = lowerBound(prefix);
+        int to = from;
+        while (to < this.foldedCompletions.length && this.foldedCompletions[to].startsWith(prefix)) to++;
+
+        return builder.includeStrings(Arrays.asList(this.completions).subList(from, to)).build();
+    }
+
+    // Returns the index of the first completion whose folded form is not less than the key
+    private int lowerBound(final String key) {
+        int low = 0;
+        int high = this.foldedCompletions.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (this.foldedCompletions[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
 
-        throw this.exceptionSupplier.get();
+        return low;
     }
 
     @Override
-    public CompletionAccumulator complete(final CommandContext<S> context, final CompletionBuilder builder) {
-        return builder.includeStrings(this.type.getEnumConstants(), this.resolver::complete).build();
+    public boolean isPure() {
+        return true;
     }
 
     private interface EnumResolver<E extends Enum<E>> {
 
-        boolean matches(final E candidate, final String input);
+        // Input matches a constant if their keys are equal
+        String key(final String value);
 
         String complete(final E value);
 
         static <E extends Enum<E>> EnumResolver<E> strict() {
-            return new EnumResolverImpl<>((candidate, value) -> candidate.name().equals(value), Enum::name);
+            return new EnumResolverImpl<>(Function.identity(), Enum::name);
         }
 
         static <E extends Enum<E>> EnumResolver<E> lenient() {
-            return new EnumResolverImpl<>((candidate, value) -> candidate.name().equalsIgnoreCase(value), x -> x.name().toLowerCase());
+            return new EnumResolverImpl<>(StringUtil::foldCase, x -> x.name().toLowerCase());
         }
     }
 
     private static final class EnumResolverImpl<E extends Enum<E>> implements EnumResolver<E> {
-        private final BiPredicate<E, String> matcher;
+        private final Function<String, String> keyMapper;
         private final Function<E, String> completer;
 
-        private EnumResolverImpl(final BiPredicate<E, String> matcher, final Function<E, String> completer) {
-            this.matcher = matcher;
+        private EnumResolverImpl(final Function<String, String> keyMapper, final Function<E, String> completer) {
+            this.keyMapper = keyMapper;
             this.completer = completer;
         }
 
         @Override
-        public boolean matches(final E candidate, final String input) {
-            return this.matcher.test(candidate, input);
+        public String key(final String value) {
+            return this.keyMapper.apply(value);
         }
 
         @Override
@@ -0,0 +1,64 @@
+package grapefruit.command.argument.mapper.builtin;
+
+import grapefruit.command.argument.mapper.AbstractArgumentMapper;
+import grapefruit.command.argument.mapper.ArgumentMappingException;
+import grapefruit.command.argument.mapper.PrimitiveArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.NumericArgumentMapper.NumberMappingException;
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.key.Key;
+
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+public final class IntArgumentMapper<S> extends AbstractArgumentMapper<S, Integer> implements PrimitiveArgumentMapper<S, Integer> {
+    private final int min;
+    private final int max;
+    private final Supplier<ArgumentMappingException> exceptionSupplier;
+
+    private IntArgumentMapper(final int min, final int max, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        super(Integer.class, false);
+        if (min > max) throw new IllegalArgumentException("min cannot be greater than max");
+        this.min = min;
+        this.max = max;
+        this.exceptionSupplier = requireNonNull(exceptionSupplier, "exceptionSupplier cannot be null");
+    }
+
+    public static <S> IntArgumentMapper<S> intMapper() {
+        return intMapper(NumberMappingException::new);
+    }
+
+    public static <S> IntArgumentMapper<S> intMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return intMapper(Integer.MIN_VALUE, Integer.MAX_VALUE, exceptionSupplier);
+    }
+
+    public static <S> IntArgumentMapper<S> intMapper(final int min, final int max) {
+        return intMapper(min, max, NumberMappingException::new);
+    }
+
+    public static <S> IntArgumentMapper<S> intMapper(final int min, final int max, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return new IntArgumentMapper<>(min, max, exceptionSupplier);
+    }
+
+    public int tryMapInt(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        if (!input.tryReadLong(this.min, this.max)) throw this.exceptionSupplier.get();
+        return (int) input.lastLong();
+    }
+
+    @Override
+    public Integer tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        return tryMapInt(context, input);
+    }
+
+    @Override
+    public void mapInto(final CommandContext<S> context, final CommandInputTokenizer input, final Key<Integer> key) throws ArgumentMappingException, MissingInputException {
+        context.storeInt(key, tryMapInt(context, input));
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+}
@@ -0,0 +1,64 @@
+package grapefruit.command.argument.mapper.builtin;
+
+import grapefruit.command.argument.mapper.AbstractArgumentMapper;
+import grapefruit.command.argument.mapper.ArgumentMappingException;
+import grapefruit.command.argument.mapper.PrimitiveArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.NumericArgumentMapper.NumberMappingException;
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.key.Key;
+
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+public final class LongArgumentMapper<S> extends AbstractArgumentMapper<S, Long> implements PrimitiveArgumentMapper<S, Long> {
+    private final long min;
+    private final long max;
+    private final Supplier<ArgumentMappingException> exceptionSupplier;
+
+    private LongArgumentMapper(final long min, final long max, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        super(Long.class, false);
+        if (min > max) throw new IllegalArgumentException("min cannot be greater than max");
+        this.min = min;
+        this.max = max;
+        this.exceptionSupplier = requireNonNull(exceptionSupplier, "exceptionSupplier cannot be null");
+    }
+
+    public static <S> LongArgumentMapper<S> longMapper() {
+        return longMapper(NumberMappingException::new);
+    }
+
+    public static <S> LongArgumentMapper<S> longMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return longMapper(Long.MIN_VALUE, Long.MAX_VALUE, exceptionSupplier);
+    }
+
+    public static <S> LongArgumentMapper<S> longMapper(final long min, final long max) {
+        return longMapper(min, max, NumberMappingException::new);
+    }
+
+    public static <S> LongArgumentMapper<S> longMapper(final long min, final long max, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return new LongArgumentMapper<>(min, max, exceptionSupplier);
+    }
+
+    public long tryMapLong(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        if (!input.tryReadLong(this.min, this.max)) throw this.exceptionSupplier.get();
+        return input.lastLong();
+    }
+
+    @Override
+    public Long tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        return tryMapLong(context, input);
+    }
+
+    @Override
+    public void mapInto(final CommandContext<S> context, final CommandInputTokenizer input, final Key<Long> key) throws ArgumentMappingException, MissingInputException {
+        context.storeLong(key, tryMapLong(context, input));
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+}
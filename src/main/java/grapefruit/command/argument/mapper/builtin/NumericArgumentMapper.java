@@ -5,18 +5,18 @@ import grapefruit.command.argument.mapper.ArgumentMappingException;
 import grapefruit.command.dispatcher.CommandContext;
 import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.dispatcher.input.MissingInputException;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
 public final class NumericArgumentMapper<S, N extends Number> extends AbstractArgumentMapper<S, N> {
-    private final Function<String, N> internalMapper;
+    private final NumberReader<N> internalMapper;
     private final Supplier<ArgumentMappingException> exceptionSupplier;
 
-    private NumericArgumentMapper(final Class<N> type, final Function<String, N> internalMapper, final Supplier<ArgumentMappingException> exceptionSupplier) {
+    private NumericArgumentMapper(final Class<N> type, final NumberReader<N> internalMapper, final Supplier<ArgumentMappingException> exceptionSupplier) {
         super(type, false);
         this.internalMapper = requireNonNull(internalMapper, "internalMapper cannot be null");
         this.exceptionSupplier = requireNonNull(exceptionSupplier, "exceptionSupplier cannot be null");
@@ -27,7 +27,7 @@ public final class NumericArgumentMapper<S, N extends Number> extends AbstractAr
     }
 
     public static <S> NumericArgumentMapper<S, Byte> byteMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
-        return new NumericArgumentMapper<>(Byte.class, Byte::parseByte, exceptionSupplier);
+        return new NumericArgumentMapper<>(Byte.class, input -> input.tryReadLong(Byte.MIN_VALUE, Byte.MAX_VALUE) ? (byte) input.lastLong() : null, exceptionSupplier);
     }
 
     public static <S> NumericArgumentMapper<S, Short> shortMapper() {
@@ -35,7 +35,7 @@ public final class NumericArgumentMapper<S, N extends Number> extends AbstractAr
     }
 
     public static <S> NumericArgumentMapper<S, Short> shortMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
-        return new NumericArgumentMapper<>(Short.class, Short::parseShort, exceptionSupplier);
+        return new NumericArgumentMapper<>(Short.class, input -> input.tryReadLong(Short.MIN_VALUE, Short.MAX_VALUE) ? (short) input.lastLong() : null, exceptionSupplier);
     }
 
     public static <S> NumericArgumentMapper<S, Integer> intMapper() {
@@ -43,7 +43,7 @@ public final class NumericArgumentMapper<S, N extends Number> extends AbstractAr
     }
 
     public static <S> NumericArgumentMapper<S, Integer> intMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
-        return new NumericArgumentMapper<>(Integer.class, Integer::parseInt, exceptionSupplier);
+        return new NumericArgumentMapper<>(Integer.class, input -> input.tryReadLong(Integer.MIN_VALUE, Integer.MAX_VALUE) ? (int) input.lastLong() : null, exceptionSupplier);
     }
 
     public static <S> NumericArgumentMapper<S, Long> longMapper() {
@@ -51,7 +51,7 @@ public final class NumericArgumentMapper<S, N extends Number> extends AbstractAr
     }
 
     public static <S> NumericArgumentMapper<S, Long> longMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
-        return new NumericArgumentMapper<>(Long.class, Long::parseLong, exceptionSupplier);
+        return new NumericArgumentMapper<>(Long.class, input -> input.tryReadLong(Long.MIN_VALUE, Long.MAX_VALUE) ? input.lastLong() : null, exceptionSupplier);
     }
 
     public static <S> NumericArgumentMapper<S, Float> floatMapper() {
@@ -59,7 +59,7 @@ public final class NumericArgumentMapper<S, N extends Number> extends AbstractAr
     }
 
     public static <S> NumericArgumentMapper<S, Float> floatMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
-        return new NumericArgumentMapper<>(Float.class, Float::parseFloat, exceptionSupplier);
+        return new NumericArgumentMapper<>(Float.class, input -> input.tryReadFloat(Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY) ? (float) input.lastDouble() : null, exceptionSupplier);
     }
 
     public static <S> NumericArgumentMapper<S, Double> doubleMapper() {
@@ -67,16 +67,26 @@ public final class NumericArgumentMapper<S, N extends Number> extends AbstractAr
     }
 
     public static <S> NumericArgumentMapper<S, Double> doubleMapper(final Supplier<ArgumentMappingException> exceptionSupplier) {
-        return new NumericArgumentMapper<>(Double.class, Double::parseDouble, exceptionSupplier);
+        return new NumericArgumentMapper<>(Double.class, input -> input.tryReadDouble(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY) ? input.lastDouble() : null, exceptionSupplier);
     }
 
     @Override
     public N tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
-        try {
-            return this.internalMapper.apply(input.readWord());
-        } catch (final NumberFormatException ex) {
-            throw this.exceptionSupplier.get();
-        }
+        final @Nullable N result = this.internalMapper.read(input);
+        if (result == null) throw this.exceptionSupplier.get();
+        return result;
+    }
+
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
+    // Returns null if the next word is not a valid number of the given type
+    @FunctionalInterface
+    private interface NumberReader<N extends Number> {
+
+        @Nullable N read(final CommandInputTokenizer input) throws MissingInputException;
     }
 
     public static final class NumberMappingException extends ArgumentMappingException {
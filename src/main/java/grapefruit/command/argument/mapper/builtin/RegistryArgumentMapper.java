@@ -0,0 +1,139 @@
+package grapefruit.command.argument.mapper.builtin;
+
+import grapefruit.command.argument.mapper.AbstractArgumentMapper;
+import grapefruit.command.argument.mapper.ArgumentMappingException;
+import grapefruit.command.completion.CompletionAccumulator;
+import grapefruit.command.completion.CompletionBuilder;
+import grapefruit.command.dispatcher.CommandContext;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
+import grapefruit.command.util.ToStringer;
+import io.leangen.geantyref.TypeToken;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Serial;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+import static grapefruit.command.util.StringUtil.containsWhitespace;
+import static grapefruit.command.util.StringUtil.foldCase;
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Maps names to values held in a registry that can be updated at any time,
+ * including while commands are being dispatched or completed. Names are
+ * matched ignoring case, and entries are kept sorted by their case-folded
+ * name, so completing only visits the entries starting with the input.
+ */
+public final class RegistryArgumentMapper<S, T> extends AbstractArgumentMapper<S, T> {
+    private final ConcurrentNavigableMap<String, Entry<T>> entries = new ConcurrentSkipListMap<>();
+    private final Supplier<ArgumentMappingException> exceptionSupplier;
+
+    private RegistryArgumentMapper(final TypeToken<T> type, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        super(type, false);
+        this.exceptionSupplier = requireNonNull(exceptionSupplier, "exceptionSupplier cannot be null");
+    }
+
+    public static <S, T> RegistryArgumentMapper<S, T> create(final TypeToken<T> type, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return new RegistryArgumentMapper<>(type, exceptionSupplier);
+    }
+
+    public static <S, T> RegistryArgumentMapper<S, T> create(final TypeToken<T> type) {
+        return create(type, RegistryMappingException::new);
+    }
+
+    public static <S, T> RegistryArgumentMapper<S, T> create(final Class<T> type, final Supplier<ArgumentMappingException> exceptionSupplier) {
+        return create(TypeToken.get(requireNonNull(type, "type cannot be null")), exceptionSupplier);
+    }
+
+    public static <S, T> RegistryArgumentMapper<S, T> create(final Class<T> type) {
+        return create(type, RegistryMappingException::new);
+    }
+
+    /*
+     * Registers the value under the provided name, replacing the value that
+     * was previously registered under the same name ignoring case, which is
+     * then returned.
+     */
+    public Optional<T> register(final String name, final T value) {
+        requireNonNull(name, "name cannot be null");
+        requireNonNull(value, "value cannot be null");
+        if (name.isEmpty() || containsWhitespace(name)) {
+            throw new IllegalArgumentException("Registry names must be non-empty and cannot contain whitespace, got '%s'".formatted(name));
+        }
+
+        return unwrap(this.entries.put(foldCase(name), new Entry<>(name, value)));
+    }
+
+    public Optional<T> unregister(final String name) {
+        requireNonNull(name, "name cannot be null");
+        return unwrap(this.entries.remove(foldCase(name)));
+    }
+
+    public Optional<T> lookup(final String name) {
+        requireNonNull(name, "name cannot be null");
+        return unwrap(this.entries.get(foldCase(name)));
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    public void clear() {
+        this.entries.clear();
+    }
+
+    private static <T> Optional<T> unwrap(final @Nullable Entry<T> entry) {
+        return entry == null ? Optional.empty() : Optional.of(entry.value);
+    }
+
+    @Override
+    public T tryMap(final CommandContext<S> context, final CommandInputTokenizer input) throws ArgumentMappingException, MissingInputException {
+        final @Nullable Entry<T> entry = this.entries.get(foldCase(input.readWord()));
+        if (entry == null) throw this.exceptionSupplier.get();
+        return entry.value;
+    }
+
+    @Override
+    public CompletionAccumulator complete(final CommandContext<S> context, final CompletionBuilder builder) {
+        final String prefix = foldCase(builder.input());
+        // Entries starting with the prefix are adjacent, and the first of them is not less than the prefix
+        for (final Map.Entry<String, Entry<T>> entry : this.entries.tailMap(prefix).entrySet()) {
+            if (builder.isFull() || !entry.getKey().startsWith(prefix)) break;
+            builder.includeString(entry.getValue().name);
+        }
+
+        return builder.build();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("type", type())
+                .append("size", this.entries.size())
+                .toString();
+    }
+
+    private static final class Entry<T> {
+        // The name as it was registered, which is what gets completed
+        private final String name;
+        private final T value;
+
+        private Entry(final String name, final T value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    public static final class RegistryMappingException extends ArgumentMappingException {
+        @Serial
+        private static final long serialVersionUID = 3942176057481295106L;
+
+        public RegistryMappingException() {
+            super();
+        }
+    }
+}
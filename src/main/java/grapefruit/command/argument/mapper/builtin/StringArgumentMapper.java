@@ -58,6 +58,11 @@ public final class StringArgumentMapper<S> extends AbstractArgumentMapper<S, Str
         return this.internalMapper.apply(input);
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     private static final class Regex<S> implements ArgumentMapper.Filter<S, String> {
         private final Pattern pattern;
         private final ArgumentMappingException.Factory<String> exceptionFactory;
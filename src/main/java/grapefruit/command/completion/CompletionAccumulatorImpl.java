@@ -4,10 +4,10 @@ import grapefruit.command.util.ToStringer;
 
 import java.util.List;
 
-import static grapefruit.command.util.StringUtil.startsWithIgnoreCase;
 import static java.util.Objects.requireNonNull;
 
 final class CompletionAccumulatorImpl implements CompletionAccumulator {
+    // Already filtered, limited and ranked by the builder
     private final List<CommandCompletion> completions;
     private final String input;
 
@@ -18,9 +18,7 @@ final class CompletionAccumulatorImpl implements CompletionAccumulator {
 
     @Override
     public List<CommandCompletion> filterCompletions() {
-        return this.completions.stream()
-                .filter(x -> startsWithIgnoreCase(x.completion(), this.input))
-                .toList();
+        return this.completions;
     }
 
     @Override
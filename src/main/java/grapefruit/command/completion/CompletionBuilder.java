@@ -2,11 +2,19 @@ package grapefruit.command.completion;
 
 import java.util.Collection;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public interface CompletionBuilder {
 
     String input();
 
+    /*
+     * Whether the limit of the completion request has been reached, and
+     * further completions would be ignored anyway.
+     */
+    boolean isFull();
+
     CompletionBuilder include(final CommandCompletion completion);
 
     CompletionBuilder includeString(final String completion);
@@ -27,9 +35,25 @@ public interface CompletionBuilder {
 
     <T> CompletionBuilder includeStrings(final T[] completions, final Function<T, String> mapper);
 
+    /*
+     * The following methods consume their source lazily: candidates are
+     * only turned into completions if they start with the input, and
+     * iteration stops once the builder is full. The stream is only opened
+     * if the builder can take more completions, and is closed afterwards.
+     */
+    CompletionBuilder includeStrings(final Iterable<String> completions);
+
+    <T> CompletionBuilder includeStrings(final Iterable<T> completions, final Function<T, String> mapper);
+
+    CompletionBuilder includeStrings(final Supplier<? extends Stream<String>> completions);
+
     CompletionAccumulator build();
 
     static CompletionBuilder of(final CompletionFactory factory, final String input) {
-        return new CompletionBuilderImpl(factory, input);
+        return of(factory, input, CompletionRequest.unlimited());
+    }
+
+    static CompletionBuilder of(final CompletionFactory factory, final String input, final CompletionRequest request) {
+        return new CompletionBuilderImpl(factory, input, request);
     }
 }
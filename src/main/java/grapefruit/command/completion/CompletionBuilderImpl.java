@@ -2,28 +2,33 @@ package grapefruit.command.completion;
 
 import grapefruit.command.util.ToStringer;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.List;
+import java.util.Iterator;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import static grapefruit.command.util.StringUtil.startsWithIgnoreCase;
 import static java.util.Objects.requireNonNull;
 
+/*
+ * Completions that don't start with the input are dropped as soon as they
+ * are included, and strings are only turned into completions if they do.
+ */
 final class CompletionBuilderImpl implements CompletionBuilder {
-    private final List<CommandCompletion> completions = new ArrayList<>();
     private final CompletionFactory factory;
     private final String input;
+    private final CompletionCollector collector;
 
-    CompletionBuilderImpl(final CompletionFactory factory, final String input) {
+    CompletionBuilderImpl(final CompletionFactory factory, final String input, final CompletionRequest request) {
         this.factory = requireNonNull(factory, "factory cannot be null");
         this.input = requireNonNull(input, "input cannot be null");
+        this.collector = new CompletionCollector(requireNonNull(request, "request cannot be null"), input);
     }
 
     @Override
     public CompletionAccumulator build() {
-        return new CompletionAccumulatorImpl(this.completions, this.input);
+        return new CompletionAccumulatorImpl(this.collector.collect(), this.input);
     }
 
     @Override
@@ -31,86 +36,150 @@ final class CompletionBuilderImpl implements CompletionBuilder {
         return this.input;
     }
 
+    @Override
+    public boolean isFull() {
+        return this.collector.isFull();
+    }
+
     @Override
     public CompletionBuilder include(final CommandCompletion completion) {
         requireNonNull(completion, "completion cannot be null");
-        this.completions.add(completion);
+        offer(completion);
         return this;
     }
 
     @Override
     public CompletionBuilder includeString(final String completion) {
         requireNonNull(completion, "completion cannot be null");
-        return include(this.factory.create(completion));
+        offerString(completion);
+        return this;
     }
 
     @Override
     public CompletionBuilder include(final Collection<CommandCompletion> completions) {
         requireNonNull(completions, "completions cannot be null");
-        this.completions.addAll(completions);
+        for (final CommandCompletion completion : completions) {
+            if (isFull()) break;
+            offer(completion);
+        }
+
         return this;
     }
 
     @Override
     public CompletionBuilder includeStrings(final Collection<String> completions) {
-        requireNonNull(completions, "completions cannot be null");
-        return includeStrings(completions.stream());
+        return includeStrings((Iterable<String>) completions);
     }
 
     @Override
     public CompletionBuilder include(final CommandCompletion[] completions) {
         requireNonNull(completions, "completions cannot be null");
-        return include(Arrays.asList(completions));
+        for (final CommandCompletion completion : completions) {
+            if (isFull()) break;
+            offer(completion);
+        }
+
+        return this;
     }
 
     @Override
     public CompletionBuilder includeStrings(final String[] completions) {
         requireNonNull(completions, "completions cannot be null");
-        return includeStrings(Arrays.asList(completions));
+        for (final String completion : completions) {
+            if (isFull()) break;
+            offerString(completion);
+        }
+
+        return this;
     }
 
     @Override
     public <T> CompletionBuilder include(final Collection<T> completions, final Function<T, CommandCompletion> mapper) {
         requireNonNull(completions, "completions cannot be null");
         requireNonNull(mapper, "mapper cannot be null");
-        return include(completions.stream().map(mapper));
+        for (final T completion : completions) {
+            if (isFull()) break;
+            offer(mapper.apply(completion));
+        }
+
+        return this;
     }
 
     @Override
     public <T> CompletionBuilder includeStrings(final Collection<T> completions, final Function<T, String> mapper) {
-        requireNonNull(completions, "completions cannot be null");
-        requireNonNull(mapper, "mapper cannot be null");
-        return includeStrings(completions.stream().map(mapper));
+        return includeStrings((Iterable<T>) completions, mapper);
     }
 
     @Override
     public <T> CompletionBuilder include(final T[] completions, final Function<T, CommandCompletion> mapper) {
         requireNonNull(completions, "completions cannot be null");
         requireNonNull(mapper, "mapper cannot be null");
-        return include(Arrays.stream(completions).map(mapper));
+        for (final T completion : completions) {
+            if (isFull()) break;
+            offer(mapper.apply(completion));
+        }
+
+        return this;
     }
 
     @Override
     public <T> CompletionBuilder includeStrings(final T[] completions, final Function<T, String> mapper) {
         requireNonNull(completions, "completions cannot be null");
         requireNonNull(mapper, "mapper cannot be null");
-        return includeStrings(Arrays.stream(completions).map(mapper));
+        for (final T completion : completions) {
+            if (isFull()) break;
+            offerString(mapper.apply(completion));
+        }
+
+        return this;
+    }
+
+    @Override
+    public CompletionBuilder includeStrings(final Iterable<String> completions) {
+        requireNonNull(completions, "completions cannot be null");
+        return includeStrings(completions.iterator());
+    }
+
+    @Override
+    public <T> CompletionBuilder includeStrings(final Iterable<T> completions, final Function<T, String> mapper) {
+        requireNonNull(completions, "completions cannot be null");
+        requireNonNull(mapper, "mapper cannot be null");
+        for (final T completion : completions) {
+            if (isFull()) break;
+            offerString(mapper.apply(completion));
+        }
+
+        return this;
     }
 
-    private CompletionBuilder includeStrings(final Stream<String> completions) {
-        return include(completions.map(this.factory::create));
+    @Override
+    public CompletionBuilder includeStrings(final Supplier<? extends Stream<String>> completions) {
+        requireNonNull(completions, "completions cannot be null");
+        if (isFull()) return this;
+
+        try (final Stream<String> stream = completions.get()) {
+            return includeStrings(stream.iterator());
+        }
     }
 
-    private CompletionBuilder include(final Stream<CommandCompletion> completions) {
-        this.completions.addAll(completions.toList());
+    private CompletionBuilder includeStrings(final Iterator<String> completions) {
+        while (!isFull() && completions.hasNext()) offerString(completions.next());
         return this;
     }
 
+    private void offer(final CommandCompletion completion) {
+        if (startsWithIgnoreCase(completion.completion(), this.input)) this.collector.offer(completion);
+    }
+
+    private void offerString(final String completion) {
+        if (startsWithIgnoreCase(completion, this.input)) this.collector.offer(this.factory.create(completion));
+    }
+
     @Override
     public String toString() {
         return ToStringer.create(this)
                 .append("input", this.input)
-                .append("completions", this.completions)
+                .append("collector", this.collector)
                 .toString();
     }
 }
@@ -0,0 +1,98 @@
+package grapefruit.command.completion;
+
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/*
+ * Collects at most 'limit' completions. Without a ranking, the first ones
+ * win and collecting stops once the limit is reached. Otherwise the best
+ * ones are kept in a bounded heap, whose head is the worst completion kept.
+ *
+ * Completions may be collected and read from different threads, if the
+ * completion times out while a provider is still running.
+ */
+final class CompletionCollector {
+    private final int limit;
+    // System#nanoTime after which no more completions are accepted, if the request has a timeout
+    private final boolean hasDeadline;
+    private final long deadline;
+    // Used if the completions are kept in insertion order
+    private final List<CommandCompletion> completions = new ArrayList<>();
+    // Used if the completions are ranked, null otherwise
+    private final @Nullable Comparator<Entry> comparator;
+    private final @Nullable PriorityQueue<Entry> heap;
+    private int sequence;
+
+    CompletionCollector(final CompletionRequest request, final String input) {
+        this.limit = request.limit();
+        final Optional<Duration> timeout = request.timeout();
+        this.hasDeadline = timeout.isPresent();
+        this.deadline = this.hasDeadline ? System.nanoTime() + timeout.orElseThrow().toNanos() : 0L;
+        if (request.ranking() == CompletionRanking.insertionOrder()) {
+            this.comparator = null;
+            this.heap = null;
+        } else {
+            final Comparator<CommandCompletion> ranking = request.ranking().comparator(input);
+            // Break ties by insertion order, so that the result doesn't depend on the heap
+            this.comparator = Comparator.<Entry, CommandCompletion>comparing(x -> x.completion, ranking)
+                    .thenComparingInt(x -> x.sequence);
+            this.heap = new PriorityQueue<>(this.comparator.reversed());
+        }
+    }
+
+    synchronized boolean isFull() {
+        return (this.heap == null && this.completions.size() >= this.limit)
+                || (this.hasDeadline && System.nanoTime() - this.deadline >= 0);
+    }
+
+    synchronized void offer(final CommandCompletion completion) {
+        if (isFull()) return;
+        if (this.heap == null || this.comparator == null) {
+            this.completions.add(completion);
+            return;
+        }
+
+        final Entry entry = new Entry(completion, this.sequence++);
+        if (this.heap.size() < this.limit) {
+            this.heap.add(entry);
+        } else if (this.comparator.compare(entry, this.heap.peek()) < 0) {
+            this.heap.poll();
+            this.heap.add(entry);
+        }
+    }
+
+    synchronized List<CommandCompletion> collect() {
+        if (this.heap == null || this.comparator == null) return List.copyOf(this.completions);
+
+        final List<Entry> entries = new ArrayList<>(this.heap);
+        entries.sort(this.comparator);
+        final List<CommandCompletion> result = new ArrayList<>(entries.size());
+        for (final Entry entry : entries) result.add(entry.completion);
+        return List.copyOf(result);
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("limit", this.limit)
+                .append("completions", collect())
+                .toString();
+    }
+
+    private static final class Entry {
+        private final CommandCompletion completion;
+        private final int sequence;
+
+        private Entry(final CommandCompletion completion, final int sequence) {
+            this.completion = completion;
+            this.sequence = sequence;
+        }
+    }
+}
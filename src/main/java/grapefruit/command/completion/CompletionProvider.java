@@ -2,8 +2,19 @@ package grapefruit.command.completion;
 
 import grapefruit.command.dispatcher.CommandContext;
 
+import java.util.concurrent.CompletableFuture;
+
 @FunctionalInterface
 public interface CompletionProvider<S> {
 
     CompletionAccumulator complete(final CommandContext<S> context, final CompletionBuilder builder);
+
+    /*
+     * Providers that complete from slow sources should override this and
+     * include completions from another thread. The builder may be read
+     * before the returned future completes, if the completion times out.
+     */
+    default CompletableFuture<CompletionAccumulator> completeAsync(final CommandContext<S> context, final CompletionBuilder builder) {
+        return CompletableFuture.completedFuture(complete(context, builder));
+    }
 }
@@ -0,0 +1,37 @@
+package grapefruit.command.completion;
+
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+@FunctionalInterface
+public interface CompletionRanking {
+
+    /*
+     * Creates a comparator for completions of the provided input. Completions
+     * that compare lower are returned first, equal ones keep the order they
+     * were included in.
+     */
+    Comparator<CommandCompletion> comparator(final String input);
+
+    // Keeps the order completions were included in
+    static CompletionRanking insertionOrder() {
+        return RelevanceRanking.INSERTION_ORDER;
+    }
+
+    /*
+     * Exact matches first, then exact matches ignoring case, then completions
+     * that start with the input, then the ones that only do so ignoring case.
+     */
+    static CompletionRanking relevance() {
+        return RelevanceRanking.DEFAULT;
+    }
+
+    /*
+     * Same as above, ordering completions in the same tier by descending
+     * weight. The weight can be a usage count to rank by frequency, or the
+     * time of last use to rank by recency.
+     */
+    static CompletionRanking relevance(final ToLongFunction<String> weight) {
+        return new RelevanceRanking(weight);
+    }
+}
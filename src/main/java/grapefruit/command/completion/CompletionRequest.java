@@ -0,0 +1,39 @@
+package grapefruit.command.completion;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/*
+ * Describes how many completions to return, in what order, and how long
+ * collecting them may take. Once the limit is reached or the timeout has
+ * elapsed, completion builders stop collecting candidates, so large
+ * candidate sets are never fully materialized.
+ */
+public interface CompletionRequest {
+
+    // Integer.MAX_VALUE if the request is unlimited
+    int limit();
+
+    CompletionRanking ranking();
+
+    /*
+     * The time, measured from the creation of the completion builder,
+     * after which the completions collected so far are returned. Blocking
+     * providers can only be cut short by CommandDispatcher#completeAsync.
+     */
+    Optional<Duration> timeout();
+
+    CompletionRequest withTimeout(final Duration timeout);
+
+    static CompletionRequest unlimited() {
+        return CompletionRequestImpl.UNLIMITED;
+    }
+
+    static CompletionRequest of(final int limit) {
+        return of(limit, CompletionRanking.insertionOrder());
+    }
+
+    static CompletionRequest of(final int limit, final CompletionRanking ranking) {
+        return new CompletionRequestImpl(limit, ranking, null);
+    }
+}
@@ -0,0 +1,54 @@
+package grapefruit.command.completion;
+
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+final class CompletionRequestImpl implements CompletionRequest {
+    static final CompletionRequest UNLIMITED = new CompletionRequestImpl(Integer.MAX_VALUE, CompletionRanking.insertionOrder(), null);
+    private final int limit;
+    private final CompletionRanking ranking;
+    private final @Nullable Duration timeout;
+
+    CompletionRequestImpl(final int limit, final CompletionRanking ranking, final @Nullable Duration timeout) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be positive");
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) throw new IllegalArgumentException("timeout must be positive");
+        this.limit = limit;
+        this.ranking = requireNonNull(ranking, "ranking cannot be null");
+        this.timeout = timeout;
+    }
+
+    @Override
+    public int limit() {
+        return this.limit;
+    }
+
+    @Override
+    public CompletionRanking ranking() {
+        return this.ranking;
+    }
+
+    @Override
+    public Optional<Duration> timeout() {
+        return Optional.ofNullable(this.timeout);
+    }
+
+    @Override
+    public CompletionRequest withTimeout(final Duration timeout) {
+        requireNonNull(timeout, "timeout cannot be null");
+        return new CompletionRequestImpl(this.limit, this.ranking, timeout);
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("limit", this.limit)
+                .append("ranking", this.ranking)
+                .append("timeout", this.timeout)
+                .toString();
+    }
+}
@@ -0,0 +1,63 @@
+package grapefruit.command.completion;
+
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Comparator;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+final class RelevanceRanking implements CompletionRanking {
+    static final CompletionRanking INSERTION_ORDER = new CompletionRanking() {
+        @Override
+        public Comparator<CommandCompletion> comparator(final String input) {
+            return (a, b) -> 0;
+        }
+
+        @Override
+        public String toString() {
+            return "INSERTION_ORDER";
+        }
+    };
+    static final CompletionRanking DEFAULT = new RelevanceRanking();
+    private static final int EXACT = 0;
+    private static final int EXACT_IGNORE_CASE = 1;
+    private static final int PREFIX = 2;
+    private static final int PREFIX_IGNORE_CASE = 3;
+    private final @Nullable ToLongFunction<String> weight;
+
+    private RelevanceRanking() {
+        this.weight = null;
+    }
+
+    RelevanceRanking(final ToLongFunction<String> weight) {
+        this.weight = requireNonNull(weight, "weight cannot be null");
+    }
+
+    @Override
+    public Comparator<CommandCompletion> comparator(final String input) {
+        requireNonNull(input, "input cannot be null");
+        final Comparator<CommandCompletion> byTier = Comparator.comparingInt(x -> tier(x.completion(), input));
+        if (this.weight == null) return byTier;
+
+        final ToLongFunction<String> weight = this.weight;
+        return byTier.thenComparing(Comparator.comparingLong((CommandCompletion x) -> weight.applyAsLong(x.completion())).reversed());
+    }
+
+    // Completions are expected to start with the input ignoring case already
+    private static int tier(final String completion, final String input) {
+        if (completion.length() == input.length()) {
+            return completion.equals(input) ? EXACT : EXACT_IGNORE_CASE;
+        }
+
+        return completion.startsWith(input) ? PREFIX : PREFIX_IGNORE_CASE;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("weight", this.weight)
+                .toString();
+    }
+}
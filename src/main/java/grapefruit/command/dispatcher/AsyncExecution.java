@@ -0,0 +1,78 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Executes a prepared command on an executor thread and completes a
+ * future with the result. Cancelling the future interrupts the thread
+ * that is executing the command, or prevents the execution altogether if
+ * it hasn't started yet.
+ */
+final class AsyncExecution<S> implements Runnable {
+    private final CompletableFuture<ExecutionResult<S>> future = new CompletableFuture<>();
+    private final S source;
+    // Returns null if the execution was cancelled by a pre execution listener
+    private final Supplier<@Nullable ExecutionResult<S>> execution;
+    // The thread currently executing the command, guarded by 'this'
+    private @Nullable Thread runner;
+
+    AsyncExecution(
+            final S source,
+            final Supplier<@Nullable ExecutionResult<S>> execution
+    ) {
+        this.source = requireNonNull(source, "source cannot be null");
+        this.execution = requireNonNull(execution, "execution cannot be null");
+        this.future.whenComplete((result, ex) -> {
+            if (this.future.isCancelled()) interruptRunner();
+        });
+    }
+
+    CompletableFuture<ExecutionResult<S>> future() {
+        return this.future;
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (this.future.isDone()) return;
+            this.runner = Thread.currentThread();
+        }
+
+        try {
+            final @Nullable ExecutionResult<S> result = this.execution.get();
+            if (result == null) {
+                this.future.cancel(false);
+            } else {
+                this.future.complete(result);
+            }
+        } catch (final Throwable ex) {
+            // An execution listener failed
+            this.future.completeExceptionally(ex);
+        } finally {
+            synchronized (this) {
+                this.runner = null;
+            }
+
+            // Don't leak a cancellation interrupt into whatever the executor runs next
+            if (this.future.isCancelled()) Thread.interrupted();
+        }
+    }
+
+    private synchronized void interruptRunner() {
+        if (this.runner != null) this.runner.interrupt();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("source", this.source)
+                .append("future", this.future)
+                .toString();
+    }
+}
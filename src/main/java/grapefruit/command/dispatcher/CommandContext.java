@@ -25,6 +25,35 @@ public interface CommandContext<S> {
 
     <T> void store(final Key<T> key, T value);
 
+    /*
+     * Primitive variants of require and store. Implementations may store
+     * primitive values without boxing them, but they are accessible through
+     * the generic methods as well, and the other way around.
+     */
+    default int getInt(final Key<Integer> key) {
+        return require(key);
+    }
+
+    default long getLong(final Key<Long> key) {
+        return require(key);
+    }
+
+    default double getDouble(final Key<Double> key) {
+        return require(key);
+    }
+
+    default void storeInt(final Key<Integer> key, final int value) {
+        store(key, value);
+    }
+
+    default void storeLong(final Key<Long> key, final long value) {
+        store(key, value);
+    }
+
+    default void storeDouble(final Key<Double> key, final double value) {
+        store(key, value);
+    }
+
     <T> boolean replace(final Key<T> key, T value);
 
     boolean remove(final Key<?> key);
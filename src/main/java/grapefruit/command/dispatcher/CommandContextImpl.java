@@ -5,23 +5,56 @@ import grapefruit.command.util.ToStringer;
 import grapefruit.command.util.key.Key;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static java.util.Objects.requireNonNull;
 
+/*
+ * Values of chain arguments are stored in an array, at the slot assigned
+ * to their key by the parse plan. Any other key (added by a context
+ * decorator for instance) ends up in a map that is created on demand.
+ *
+ * Primitive values are stored in a second array (created on demand) at
+ * the same slot, with the slot itself holding a marker of their type.
+ * They are only boxed if they are accessed through the generic methods.
+ *
+ * This class is not thread-safe, see SynchronizedCommandContext.
+ */
 final class CommandContextImpl<S> implements CommandContext<S> {
-    private final Map<Key<?>, Object> internalStore = new HashMap<>();
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Marks empty slots, so that null values can be stored as well
+    private static final Object UNSET = new Object();
+    private static final Object INT = new Object();
+    private static final Object LONG = new Object();
+    private static final Object DOUBLE = new Object();
     private final S source;
-    private final CommandChain<S> chain;
+    private final ParsePlan<S> plan;
+    private final Object[] slots;
+    // Doubles are stored as their raw long bits
+    private long @Nullable [] primitives;
+    private @Nullable Map<Key<?>, Object> fallbackStore;
 
-    CommandContextImpl(final S source, final CommandChain<S> chain) {
+    CommandContextImpl(final S source, final ParsePlan<S> plan) {
         this.source = requireNonNull(source, "source cannot be null");
-        this.chain = requireNonNull(chain, "chain cannot be null");
+        this.plan = requireNonNull(plan, "plan cannot be null");
+        this.slots = new Object[plan.slotCount()];
+        Arrays.fill(this.slots, UNSET);
+    }
+
+    private CommandContextImpl(final CommandContextImpl<S> source) {
+        this.source = source.source;
+        this.plan = source.plan;
+        this.slots = source.slots.clone();
+        this.primitives = source.primitives == null ? null : source.primitives.clone();
+        this.fallbackStore = source.fallbackStore == null ? null : new HashMap<>(source.fallbackStore);
+    }
+
+    // Creates a copy of this context, which can be modified independently of this instance
+    CommandContextImpl<S> copy() {
+        return new CommandContextImpl<>(this);
     }
 
     @Override
@@ -31,7 +64,7 @@ final class CommandContextImpl<S> implements CommandContext<S> {
 
     @Override
     public CommandChain<S> chain() {
-        return this.chain;
+        return this.plan.chain();
     }
 
     @Override
@@ -52,25 +85,89 @@ final class CommandContextImpl<S> implements CommandContext<S> {
     @Override
     @SuppressWarnings("unchecked")
     public <T> @Nullable T nullable(final Key<T> key) {
-        try {
-            this.lock.readLock().lock();
-            Object found = this.internalStore.get(key);
-
-            // TODO check for class cast errors
-            return (T) found;
-        } finally {
-            this.lock.readLock().unlock();
+        final int slot = this.plan.slot(key);
+        final Object found = slot == ParsePlan.NOT_FOUND
+                ? this.fallbackStore == null ? null : this.fallbackStore.get(key)
+                : slotValue(slot);
+
+        // TODO check for class cast errors
+        return found == UNSET ? null : (T) found;
+    }
+
+    // Returns the value in the slot, boxing it if it is a primitive
+    private Object slotValue(final int slot) {
+        final Object value = this.slots[slot];
+        if (value == INT) return (int) requirePrimitives()[slot];
+        if (value == LONG) return requirePrimitives()[slot];
+        if (value == DOUBLE) return Double.longBitsToDouble(requirePrimitives()[slot]);
+
+        return value;
+    }
+
+    private long[] requirePrimitives() {
+        // Only null if no primitive has been stored, in which case there are no markers either
+        return requireNonNull(this.primitives);
+    }
+
+    @Override
+    public int getInt(final Key<Integer> key) {
+        final int slot = this.plan.slot(key);
+        return slot != ParsePlan.NOT_FOUND && this.slots[slot] == INT
+                ? (int) requirePrimitives()[slot]
+                : require(key);
+    }
+
+    @Override
+    public long getLong(final Key<Long> key) {
+        final int slot = this.plan.slot(key);
+        return slot != ParsePlan.NOT_FOUND && this.slots[slot] == LONG
+                ? requirePrimitives()[slot]
+                : require(key);
+    }
+
+    @Override
+    public double getDouble(final Key<Double> key) {
+        final int slot = this.plan.slot(key);
+        return slot != ParsePlan.NOT_FOUND && this.slots[slot] == DOUBLE
+                ? Double.longBitsToDouble(requirePrimitives()[slot])
+                : require(key);
+    }
+
+    @Override
+    public void storeInt(final Key<Integer> key, final int value) {
+        if (!storePrimitive(key, INT, value)) store(key, value);
+    }
+
+    @Override
+    public void storeLong(final Key<Long> key, final long value) {
+        if (!storePrimitive(key, LONG, value)) store(key, value);
+    }
+
+    @Override
+    public void storeDouble(final Key<Double> key, final double value) {
+        if (!storePrimitive(key, DOUBLE, Double.doubleToRawLongBits(value))) store(key, value);
+    }
+
+    // Returns false if the key has no slot, in which case the value has to be boxed
+    private boolean storePrimitive(final Key<?> key, final Object type, final long value) {
+        final int slot = this.plan.slot(key);
+        if (slot == ParsePlan.NOT_FOUND) return false;
+        if (this.slots[slot] != UNSET) {
+            throw new IllegalStateException("Cannot replace value mapped to key '%s'".formatted(key));
         }
+
+        if (this.primitives == null) this.primitives = new long[this.slots.length];
+        this.primitives[slot] = value;
+        this.slots[slot] = type;
+        return true;
     }
 
     @Override
     public boolean has(final Key<?> key) {
-        try {
-            this.lock.readLock().lock();
-            return this.internalStore.containsKey(key);
-        } finally {
-            this.lock.readLock().unlock();
-        }
+        final int slot = this.plan.slot(key);
+        return slot == ParsePlan.NOT_FOUND
+                ? this.fallbackStore != null && this.fallbackStore.containsKey(key)
+                : this.slots[slot] != UNSET;
     }
 
     @Override
@@ -84,37 +181,54 @@ final class CommandContextImpl<S> implements CommandContext<S> {
     }
 
     private <T> boolean internalStore(final Key<T> key, final T value, final boolean replace) {
-        try {
-            this.lock.writeLock().lock();
-            if (has(key) && !replace) {
-                throw new IllegalStateException("Cannot replace value mapped to key '%s'".formatted(key));
-            }
-
-            return this.internalStore.put(key, value) != null;
-        } finally {
-            this.lock.writeLock().unlock();
+        if (has(key) && !replace) {
+            throw new IllegalStateException("Cannot replace value mapped to key '%s'".formatted(key));
+        }
+
+        final int slot = this.plan.slot(key);
+        if (slot == ParsePlan.NOT_FOUND) {
+            if (this.fallbackStore == null) this.fallbackStore = new HashMap<>();
+            return this.fallbackStore.put(key, value) != null;
         }
+
+        final Object previous = this.slots[slot];
+        this.slots[slot] = value;
+        return previous != UNSET && previous != null;
     }
 
     @Override
     public boolean remove(final Key<?> key) {
-        try {
-            this.lock.writeLock().lock();
-            return this.internalStore.remove(key) != null;
-        } finally {
-            this.lock.writeLock().unlock();
+        final int slot = this.plan.slot(key);
+        if (slot == ParsePlan.NOT_FOUND) {
+            return this.fallbackStore != null && this.fallbackStore.remove(key) != null;
         }
+
+        final Object previous = this.slots[slot];
+        this.slots[slot] = UNSET;
+        return previous != UNSET && previous != null;
     }
 
     @Override
     public Map<Key<?>, Object> asMap() {
-        return Map.copyOf(this.internalStore);
+        return Map.copyOf(collect());
+    }
+
+    private Map<Key<?>, Object> collect() {
+        final Map<Key<?>, Object> result = this.fallbackStore == null
+                ? new HashMap<>()
+                : new HashMap<>(this.fallbackStore);
+
+        for (int i = 0; i < this.slots.length; i++) {
+            if (this.slots[i] != UNSET) result.put(this.plan.slotKey(i), slotValue(i));
+        }
+
+        return result;
     }
 
     @Override
     public String toString() {
         return ToStringer.create(this)
-                .append("internalStore", this.internalStore)
+                .append("internalStore", collect())
                 .toString();
     }
 }
@@ -3,10 +3,17 @@ package grapefruit.command.dispatcher;
 import grapefruit.command.CommandException;
 import grapefruit.command.CommandModule;
 import grapefruit.command.completion.CommandCompletion;
+import grapefruit.command.completion.CompletionRequest;
 import grapefruit.command.dispatcher.config.DispatcherConfig;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 public interface CommandDispatcher<S> {
 
@@ -24,7 +31,87 @@ public interface CommandDispatcher<S> {
 
     void dispatch(final S source, final String command) throws CommandException;
 
-    List<CommandCompletion> complete(final S source, final String command);
+    /*
+     * Same as dispatch, but user errors (unknown commands, invalid
+     * arguments, unfulfilled conditions and failed executions) are
+     * returned as the outcome instead of being thrown.
+     */
+    DispatchOutcome<S> tryDispatch(final S source, final String command);
+
+    default List<DispatchOutcome<S>> dispatchAll(final S source, final List<String> commands) {
+        return dispatchAll(source, commands, false);
+    }
+
+    /*
+     * Dispatches the commands in order, returning the outcome of each. If
+     * stopOnFailure is true, the commands following the first unsuccessful
+     * outcome are skipped, so the list ends with that outcome.
+     */
+    default List<DispatchOutcome<S>> dispatchAll(final S source, final List<String> commands, final boolean stopOnFailure) {
+        final List<DispatchOutcome<S>> outcomes = new ArrayList<>(commands.size());
+        dispatchAll(source, commands.iterator(), stopOnFailure).forEachRemaining(outcomes::add);
+        return Collections.unmodifiableList(outcomes);
+    }
+
+    /*
+     * Same as above, but each command is only read from the iterator (and
+     * dispatched) when the next outcome is requested. Like tryDispatch,
+     * failures are reported as outcomes instead of being thrown.
+     */
+    Iterator<DispatchOutcome<S>> dispatchAll(final S source, final Iterator<String> commands, final boolean stopOnFailure);
+
+    /*
+     * Parses the commands and tests their conditions in parallel using the
+     * pool, then executes them in submission order. Consecutive commands
+     * that are order insensitive (and not synchronous) are executed in
+     * parallel using the pool. The outcomes are returned in submission
+     * order, once all commands have been executed.
+     */
+    List<DispatchOutcome<S>> dispatchAllParallel(final S source, final List<String> commands, final ForkJoinPool pool);
+
+    // Same as above, using the common fork-join pool
+    default List<DispatchOutcome<S>> dispatchAllParallel(final S source, final List<String> commands) {
+        return dispatchAllParallel(source, commands, ForkJoinPool.commonPool());
+    }
+
+    /*
+     * Parses the command and tests its conditions on the calling thread,
+     * then executes it (along with the execution listeners) using the
+     * provided executor. The returned future is cancelled if a pre
+     * execution listener cancels the execution. Cancelling the future
+     * interrupts the thread executing the command.
+     */
+    CompletableFuture<ExecutionResult<S>> dispatchAsync(final S source, final String command, final Executor executor) throws CommandException;
+
+    /*
+     * Same as above, using virtual threads if the dispatcher was configured
+     * to do so, and the common fork-join pool otherwise.
+     */
+    CompletableFuture<ExecutionResult<S>> dispatchAsync(final S source, final String command) throws CommandException;
+
+    default List<CommandCompletion> complete(final S source, final String command) {
+        return complete(source, command, CompletionRequest.unlimited());
+    }
+
+    List<CommandCompletion> complete(final S source, final String command, final CompletionRequest request);
+
+    /*
+     * Parses the command on the calling thread, then collects completions
+     * using CompletionProvider#completeAsync. If the request has a timeout,
+     * the completions collected until it elapses are returned, even if the
+     * provider is still running.
+     */
+    default CompletableFuture<List<CommandCompletion>> completeAsync(final S source, final String command) {
+        return completeAsync(source, command, CompletionRequest.unlimited());
+    }
+
+    CompletableFuture<List<CommandCompletion>> completeAsync(final S source, final String command, final CompletionRequest request);
+
+    /*
+     * Creates a completion session for the source, which reuses the parse
+     * state of previous completions where possible. See CompletionSession.
+     */
+    CompletionSession<S> completionSession(final S source);
 
     void subscribe(final ExecutionListener.Pre<S> pre);
 
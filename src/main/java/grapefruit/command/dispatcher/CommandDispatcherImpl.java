@@ -11,26 +11,41 @@ import grapefruit.command.argument.UnrecognizedFlagException;
 import grapefruit.command.argument.condition.CommandCondition;
 import grapefruit.command.argument.condition.UnfulfilledConditionException;
 import grapefruit.command.argument.mapper.ArgumentMappingException;
+import grapefruit.command.argument.mapper.PrimitiveArgumentMapper;
 import grapefruit.command.completion.CommandCompletion;
 import grapefruit.command.completion.CompletionAccumulator;
 import grapefruit.command.completion.CompletionBuilder;
 import grapefruit.command.completion.CompletionFactory;
+import grapefruit.command.completion.CompletionProvider;
+import grapefruit.command.completion.CompletionRequest;
 import grapefruit.command.dispatcher.config.DispatcherConfig;
 import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.dispatcher.input.MissingInputException;
-import grapefruit.command.tree.CommandGraph;
+import grapefruit.command.tree.NoSuchCommandException;
+import grapefruit.command.util.ExpiringCache;
+import grapefruit.command.util.ToStringer;
 import grapefruit.command.util.Tuple2;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.function.Supplier;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static java.util.Objects.requireNonNull;
 
@@ -38,10 +53,19 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
     private static final char SHORT_FLAG_PREFIX_CH = '-';
     private static final String SHORT_FLAG_PREFIX = String.valueOf(SHORT_FLAG_PREFIX_CH);
     private static final String LONG_FLAG_PREFIX = SHORT_FLAG_PREFIX.repeat(2);
-    private final CommandGraph<S> commandGraph = new CommandGraph<>();
+    private static final int[] NO_FLAGS = new int[0];
     private final CommandChainFactory<S> chainFactory = CommandChain.factory();
-    // Store computed CommandChain instances mapped to their respective CommandModule.
-    private final Map<CommandModule<S>, CommandChain<S>> computedChains = new HashMap<>();
+    // Modified by (un)registrations only, while holding the registration lock.
+    private final CommandRegistry<S> registrations = CommandRegistry.create();
+    private final ReentrantLock registrationLock = new ReentrantLock();
+    /*
+     * The registry dispatch and completion read from. This is either the
+     * same instance as this.registrations, or the latest immutable snapshot
+     * of it, if copy-on-write registrations are enabled.
+     */
+    private volatile CommandRegistry<S> registry;
+    // Incremented after every change of the registrations, once the new state has been published
+    private volatile long registrationGeneration;
     private final Queue<ExecutionListener.Pre<S>> preExecutionListeners = new ConcurrentLinkedQueue<>();
     private final Queue<ExecutionListener.Post<S>> postExecutionListeners = new ConcurrentLinkedQueue<>();
     /* Configurable properties */
@@ -49,6 +73,12 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
     private final ContextDecorator<S> contextDecorator;
     private final CompletionFactory completionFactory;
     private final boolean eagerFlagCompletions;
+    private final boolean copyOnWriteRegistrations;
+    private final boolean threadSafeContexts;
+    private final Executor defaultExecutor;
+    private final @Nullable ExecutionLimiter<S> executionLimiter;
+    // Null if parsed commands are not cached
+    private final @Nullable ExpiringCache<String, ParsedCommand<S>> parseCache;
 
     CommandDispatcherImpl(final DispatcherConfig<S> config) {
         requireNonNull(config, "config cannot be null");
@@ -56,12 +86,49 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
         this.contextDecorator = config.contextDecorator();
         this.completionFactory = config.completionFactory();
         this.eagerFlagCompletions = config.eagerFlagCompletions();
+        this.copyOnWriteRegistrations = config.copyOnWriteRegistrations();
+        this.threadSafeContexts = config.threadSafeContexts();
+        this.defaultExecutor = config.virtualThreadExecution()
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : ForkJoinPool.commonPool();
+        this.executionLimiter = config.maxConcurrentExecutions() == Integer.MAX_VALUE
+                ? null
+                : new ExecutionLimiter<>(config.maxConcurrentExecutions());
+        this.parseCache = config.parseCacheSize() == 0
+                ? null
+                : ExpiringCache.create(config.parseCacheSize(), config.parseCacheTtl());
+        this.registry = this.copyOnWriteRegistrations
+                ? this.registrations.snapshot()
+                : this.registrations;
+    }
+
+    @Override
+    public void register(final Collection<CommandModule<S>> commands) {
+        requireNonNull(commands, "commands cannot be null");
+        // Publish a single snapshot for the whole collection
+        modifyRegistrations(() -> commands.forEach(this::register0));
     }
 
     @Override
     public void register(final CommandModule<S> command) {
+        modifyRegistrations(() -> register0(command));
+    }
+
+    @Override
+    public void unregister(final Collection<CommandModule<S>> commands) {
+        requireNonNull(commands, "commands cannot be null");
+        // Publish a single snapshot for the whole collection
+        modifyRegistrations(() -> commands.forEach(this::unregister0));
+    }
+
+    @Override
+    public void unregister(final CommandModule<S> command) {
+        modifyRegistrations(() -> unregister0(command));
+    }
+
+    private void register0(final CommandModule<S> command) {
         requireNonNull(command, "command cannot be null");
-        if (this.computedChains.containsKey(command)) {
+        if (this.registrations.contains(command)) {
             throw new IllegalStateException("Command %s has already been registered".formatted(command));
         }
 
@@ -71,21 +138,35 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
         // Skip registration if the handler returns false
         if (!this.registrationHandler.register(chain)) return;
 
-        this.computedChains.put(command, chain);
-        this.commandGraph.insert(chain, command);
+        this.registrations.register(command, chain);
     }
 
-    @Override
-    public void unregister(final CommandModule<S> command) {
+    private void unregister0(final CommandModule<S> command) {
         requireNonNull(command, "command cannot be null");
 
-        final CommandChain<S> chain = requireChain(command);
+        final CommandChain<S> chain = this.registrations.requirePlan(command).chain();
 
         // Skip unregistration if the handler returns false
         if (!this.registrationHandler.unregister(chain)) return;
 
-        this.computedChains.remove(command, chain);
-        this.commandGraph.delete(chain);
+        this.registrations.unregister(command, chain);
+    }
+
+    private void modifyRegistrations(final Runnable action) {
+        this.registrationLock.lock();
+        try {
+            action.run();
+        } finally {
+            /*
+             * Publish the new state even if the action failed halfway through,
+             * so that readers see exactly what has been registered.
+             */
+            if (this.copyOnWriteRegistrations) this.registry = this.registrations.snapshot();
+            // Cached commands may have been parsed using the previous registrations
+            if (this.parseCache != null) this.parseCache.invalidateAll();
+            this.registrationGeneration++;
+            this.registrationLock.unlock();
+        }
     }
 
     @Override
@@ -93,46 +174,325 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
         requireNonNull(source, "source cannot be null");
         requireNonNull(command, "command cannot be null");
 
+        final PreparedCommand<S> prepared = prepare(source, command);
+        final @Nullable ExecutionResult<S> result = executeAndInvokeListeners(prepared);
+
+        if (result != null && !result.successful()) {
+            throw new CommandExecutionException(result.asFailed().exception());
+        }
+    }
+
+    @Override
+    public DispatchOutcome<S> tryDispatch(final S source, final String command) {
+        requireNonNull(source, "source cannot be null");
+        requireNonNull(command, "command cannot be null");
+
+        return dispatchPrepared(tryPrepare(source, command));
+    }
+
+    @Override
+    public Iterator<DispatchOutcome<S>> dispatchAll(final S source, final Iterator<String> commands, final boolean stopOnFailure) {
+        requireNonNull(source, "source cannot be null");
+        requireNonNull(commands, "commands cannot be null");
+        return new BatchDispatch(source, commands, stopOnFailure);
+    }
+
+    @Override
+    public List<DispatchOutcome<S>> dispatchAllParallel(final S source, final List<String> commands, final ForkJoinPool pool) {
+        requireNonNull(source, "source cannot be null");
+        requireNonNull(commands, "commands cannot be null");
+        requireNonNull(pool, "pool cannot be null");
+
+        // Parse every command of the batch in parallel, using the same registrations
+        final CommandRegistry<S> registry = this.registry;
+        final List<CompletableFuture<Tuple2<PreparedCommand<S>, CommandException>>> parsed = new ArrayList<>(commands.size());
+        for (final String command : commands) {
+            requireNonNull(command, "command cannot be null");
+            parsed.add(CompletableFuture.supplyAsync(() -> tryPrepare(registry, source, command), pool));
+        }
+
+        final List<CompletableFuture<DispatchOutcome<S>>> outcomes = new ArrayList<>(commands.size());
+        // Parallel executions that have to complete before the next ordered one starts
+        final List<CompletableFuture<DispatchOutcome<S>>> pending = new ArrayList<>();
+        for (final CompletableFuture<Tuple2<PreparedCommand<S>, CommandException>> future : parsed) {
+            final Tuple2<PreparedCommand<S>, CommandException> prepared = join(future);
+            final Optional<PreparedCommand<S>> command = prepared.left();
+            if (command.isPresent() && isParallel(command.orElseThrow().command())) {
+                final CompletableFuture<DispatchOutcome<S>> outcome = CompletableFuture.supplyAsync(() -> dispatchPrepared(prepared), pool);
+                pending.add(outcome);
+                outcomes.add(outcome);
+                continue;
+            }
+
+            // Failures don't execute anything, so they don't need to wait
+            if (command.isPresent()) {
+                for (final CompletableFuture<DispatchOutcome<S>> outcome : pending) join(outcome);
+                pending.clear();
+            }
+
+            outcomes.add(CompletableFuture.completedFuture(dispatchPrepared(prepared)));
+        }
+
+        final List<DispatchOutcome<S>> result = new ArrayList<>(outcomes.size());
+        for (final CompletableFuture<DispatchOutcome<S>> outcome : outcomes) result.add(join(outcome));
+        return Collections.unmodifiableList(result);
+    }
+
+    private static boolean isParallel(final CommandModule<?> command) {
+        return command.isOrderInsensitive() && !command.isSynchronous();
+    }
+
+    // Rethrows unchecked exceptions (bugs in mappers or listeners) the same way a sequential dispatch would
+    private static <T> T join(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw ex;
+        }
+    }
+
+    private DispatchOutcome<S> dispatchPrepared(final Tuple2<PreparedCommand<S>, CommandException> prepared) {
+        final Optional<CommandException> failure = prepared.right();
+        if (failure.isPresent()) return DispatchOutcomeImpl.failed(failure.orElseThrow());
+
+        final PreparedCommand<S> preparedCommand = prepared.left().orElseThrow();
+        return DispatchOutcomeImpl.executed(preparedCommand.context(), executeAndInvokeListeners(preparedCommand));
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult<S>> dispatchAsync(
+            final S source,
+            final String command,
+            final Executor executor
+    ) throws CommandException {
+        requireNonNull(source, "source cannot be null");
+        requireNonNull(command, "command cannot be null");
+        requireNonNull(executor, "executor cannot be null");
+
+        final PreparedCommand<S> prepared = prepare(source, command);
+        if (prepared.command().isSynchronous()) {
+            // Executed right away on this thread, so there is nothing to limit
+            final AsyncExecution<S> execution = new AsyncExecution<>(source, () -> executeAndInvokeListeners(prepared));
+            execution.run();
+            return execution.future();
+        }
+
+        final AsyncExecution<S> execution = new AsyncExecution<>(source, () -> executeAndInvokeListeners(prepared));
+        if (this.executionLimiter != null) {
+            // Only submitted to the executor once the source is below the limit
+            this.executionLimiter.submit(source, execution, executor);
+            return execution.future();
+        }
+
+        try {
+            executor.execute(execution);
+        } catch (final RejectedExecutionException ex) {
+            execution.future().completeExceptionally(ex);
+        }
+
+        return execution.future();
+    }
+
+    @Override
+    public CompletableFuture<ExecutionResult<S>> dispatchAsync(final S source, final String command) throws CommandException {
+        return dispatchAsync(source, command, this.defaultExecutor);
+    }
+
+    // Parse the command and test the conditions of its literal and required arguments
+    private PreparedCommand<S> prepare(final S source, final String command) throws CommandException {
+        final Tuple2<PreparedCommand<S>, CommandException> prepared = tryPrepare(source, command);
+        final Optional<CommandException> failure = prepared.right();
+        if (failure.isPresent()) throw failure.orElseThrow();
+
+        return prepared.left().orElseThrow();
+    }
+
+    // Same as prepare, but the failure is returned as the right value of the tuple instead of being thrown
+    private Tuple2<PreparedCommand<S>, CommandException> tryPrepare(final S source, final String command) {
+        return tryPrepare(this.registry, source, command);
+    }
+
+    private Tuple2<PreparedCommand<S>, CommandException> tryPrepare(final CommandRegistry<S> registry, final S source, final String command) {
+        final @Nullable Tuple2<PreparedCommand<S>, CommandException> cached = tryPrepareCached(registry, source, command);
+        if (cached != null) return cached;
+
         final CommandInputTokenizer input = CommandInputTokenizer.wrap(command);
-        final CommandModule<S> cmd = this.commandGraph.query(input);
-        final CommandContext<S> context = createContext(source, requireChain(cmd), ContextDecorator.Mode.DISPATCH);
-        final CommandParseResult<S> parseResult = processCommand(context, input);
-        parseResult.throwCaptured();
+        final Tuple2<CommandModule<S>, NoSuchCommandException> lookup = registry.graph().lookup(input);
+        final Optional<NoSuchCommandException> noSuchCommand = lookup.right();
+        if (noSuchCommand.isPresent()) return new Tuple2<>(null, noSuchCommand.orElseThrow());
+
+        return tryPrepare(registry, source, lookup.left().orElseThrow(), input);
+    }
 
-        testRequiredConditions(context);
-        executeAndInvokeListeners(context, cmd);
+    // Parses the rest of the input for a command that has already been looked up
+    private Tuple2<PreparedCommand<S>, CommandException> tryPrepare(
+            final CommandRegistry<S> registry,
+            final S source,
+            final CommandModule<S> cmd,
+            final CommandInputTokenizer input
+    ) {
+        final ParsePlan<S> plan = registry.requirePlan(cmd);
+        final CommandContext<S> context = createContext(source, plan, ContextDecorator.Mode.DISPATCH);
+        final CommandParseResult<S> parseResult = processCommand(context, plan, input);
+        final Optional<CommandException> failure = parseResult.captured(CommandException.class);
+        if (failure.isPresent()) return new Tuple2<>(null, failure.orElseThrow());
+
+        if (this.parseCache != null && plan.isPure()) {
+            // The input parsed successfully, so its values can be reused for the same input
+            this.parseCache.put(input.input(), ParsedCommand.capture(registry, cmd, plan, context));
+        }
+
+        try {
+            testRequiredConditions(context, plan);
+        } catch (final UnfulfilledConditionException ex) {
+            return new Tuple2<>(null, ex);
+        }
+
+        return new Tuple2<>(new PreparedCommand<>(cmd, context), null);
+    }
+
+    // Prepares the command from the parse cache, or returns null if the input is not cached
+    private @Nullable Tuple2<PreparedCommand<S>, CommandException> tryPrepareCached(
+            final CommandRegistry<S> registry,
+            final S source,
+            final String command
+    ) {
+        if (this.parseCache == null) return null;
+
+        final @Nullable ParsedCommand<S> parsed = this.parseCache.get(command);
+        // Entries cached concurrently with a registration may refer to the previous registrations
+        if (parsed == null || parsed.registry() != registry) return null;
+
+        final ParsePlan<S> plan = parsed.plan();
+        final CommandContext<S> context = createContext(source, plan, ContextDecorator.Mode.DISPATCH);
+        try {
+            parsed.restore(context);
+            testRequiredConditions(context, plan);
+        } catch (final UnfulfilledConditionException ex) {
+            return new Tuple2<>(null, ex);
+        }
+
+        return new Tuple2<>(new PreparedCommand<>(parsed.command(), context), null);
     }
 
     @Override
-    public List<CommandCompletion> complete(final S source, final String command) {
+    public List<CommandCompletion> complete(final S source, final String command, final CompletionRequest request) {
         requireNonNull(source, "source cannot be null");
         requireNonNull(command, "command cannot be null");
+        requireNonNull(request, "request cannot be null");
+        // Completed by the time it is returned
+        return complete(source, command, request, false).join();
+    }
+
+    @Override
+    public CompletableFuture<List<CommandCompletion>> completeAsync(final S source, final String command, final CompletionRequest request) {
+        requireNonNull(source, "source cannot be null");
+        requireNonNull(command, "command cannot be null");
+        requireNonNull(request, "request cannot be null");
+        return complete(source, command, request, true);
+    }
+
+    private CompletableFuture<List<CommandCompletion>> complete(
+            final S source,
+            final String command,
+            final CompletionRequest request,
+            final boolean async
+    ) {
+        final CommandRegistry<S> registry = this.registry;
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(command);
+        final Tuple2<List<String>, CommandModule<S>> result = registry.graph().complete(input);
+        final Optional<List<String>> completions = result.left();
+
+        if (completions.isPresent()) return CompletableFuture.completedFuture(completeRoute(input, completions.orElseThrow(), request));
+
+        final CommandModule<S> cmd = result.right().orElseThrow();
+        final ParsePlan<S> plan = registry.requirePlan(cmd);
+        final CommandContext<S> context = createContext(source, plan, ContextDecorator.Mode.COMPLETE);
+        final CommandParseResult<S> parseResult = processCommand(context, plan, input);
+        return completeArguments(context, input, parseResult, request, async);
+    }
+
+    @Override
+    public CompletionSession<S> completionSession(final S source) {
+        requireNonNull(source, "source cannot be null");
+        return new CompletionSessionImpl<>(this, source);
+    }
+
+    // Same as complete(S, String, CompletionRequest), resuming from the state of the session if possible
+    List<CommandCompletion> complete(final CompletionSessionImpl<S> session, final String command, final CompletionRequest request) {
+        final CommandRegistry<S> registry = this.registry;
+        final CompletionSessionImpl.@Nullable Checkpoint<S> checkpoint = session.resume(registry, command);
+        if (checkpoint != null) {
+            final CommandInputTokenizer input = checkpoint.input(command);
+            final CommandContext<S> context = checkpoint.context();
+            final CommandParseResult<S> parseResult = processCommand(context, session.plan(), input, checkpoint.builder(), checkpoint.argumentIndex(), session);
+            return completeArguments(context, input, parseResult, request, false).join();
+        }
 
         final CommandInputTokenizer input = CommandInputTokenizer.wrap(command);
-        final Tuple2<List<String>, CommandModule<S>> result = this.commandGraph.complete(input);
+        final Tuple2<List<String>, CommandModule<S>> result = registry.graph().complete(input);
         final Optional<List<String>> completions = result.left();
 
         if (completions.isPresent()) {
-            final String lastConsumed = input.lastConsumed().filter(x -> !input.canRead()).orElse("");
-            final CompletionBuilder builder = CompletionBuilder.of(this.completionFactory, lastConsumed);
-            return builder.includeStrings(completions.orElseThrow())
-                    .build()
-                    .filterCompletions();
+            // No command has been found yet, so there is nothing to resume from
+            session.reset();
+            return completeRoute(input, completions.orElseThrow(), request);
         }
 
         final CommandModule<S> cmd = result.right().orElseThrow();
-        final CommandContext<S> context = createContext(source, requireChain(cmd), ContextDecorator.Mode.COMPLETE);
-        final CommandParseResult<S> parseResult = processCommand(context, input);
+        final ParsePlan<S> plan = registry.requirePlan(cmd);
+        session.begin(cmd, plan);
+        final CommandContext<S> context = createContext(session.source(), plan, ContextDecorator.Mode.COMPLETE);
+        final CommandParseResult<S> parseResult = processCommand(context, plan, input, CommandParseResult.createBuilder(plan.chain()), 0, session);
+        return completeArguments(context, input, parseResult, request, false).join();
+    }
+
+    private List<CommandCompletion> completeRoute(
+            final CommandInputTokenizer input,
+            final List<String> completions,
+            final CompletionRequest request
+    ) {
+        final String lastConsumed = input.lastConsumed().filter(x -> !input.canRead()).orElse("");
+        final CompletionBuilder builder = CompletionBuilder.of(this.completionFactory, lastConsumed, request);
+        return builder.includeStrings(completions)
+                .build()
+                .filterCompletions();
+    }
 
+    /*
+     * Unless async is true, the returned future is already completed. Otherwise, if
+     * the request has a timeout, the completions collected so far are returned once
+     * it elapses.
+     */
+    private CompletableFuture<List<CommandCompletion>> completeArguments(
+            final CommandContext<S> context,
+            final CommandInputTokenizer input,
+            final CommandParseResult<S> parseResult,
+            final CompletionRequest request,
+            final boolean async
+    ) {
         if (
                 parseResult.isComplete()
                 || parseResult.captured(DuplicateFlagException.class).isPresent()
                 || parseResult.captured(UnrecognizedFlagException.class).filter(x -> !x.argument().startsWith(SHORT_FLAG_PREFIX)).isPresent()
         ) {
-            return List.of();
+            return CompletableFuture.completedFuture(List.of());
         }
 
-        return collectCompletions(context, input, parseResult).filterCompletions();
+        final CompletionBuilder builder = CompletionBuilder.of(this.completionFactory, completionInput(input), request);
+        final CompletableFuture<List<CommandCompletion>> completions = collectCompletions(context, parseResult, builder, async)
+                .thenApply(CompletionAccumulator::filterCompletions);
+
+        final Optional<Duration> timeout = request.timeout();
+        if (!async || timeout.isEmpty() || completions.isDone()) return completions;
+
+        return completions.orTimeout(timeout.orElseThrow().toNanos(), TimeUnit.NANOSECONDS).exceptionally(ex -> {
+            // The builder doesn't accept completions after the timeout, so this is final
+            if (ex instanceof TimeoutException) return builder.build().filterCompletions();
+            throw ex instanceof CompletionException completion ? completion : new CompletionException(ex);
+        });
     }
 
     @Override
@@ -155,32 +515,24 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
         this.postExecutionListeners.remove(post);
     }
 
-    private CommandContext<S> createContext(final S source, final CommandChain<S> chain, final ContextDecorator.Mode mode) {
-        final CommandContext<S> context = new CommandContextImpl<>(source, chain);
+    private CommandContext<S> createContext(final S source, final ParsePlan<S> plan, final ContextDecorator.Mode mode) {
+        final CommandContext<S> context = this.threadSafeContexts
+                ? new SynchronizedCommandContext<>(new CommandContextImpl<>(source, plan))
+                : new CommandContextImpl<>(source, plan);
         this.contextDecorator.apply(context, mode);
         return context;
     }
 
-    private CommandChain<S> requireChain(final CommandModule<S> command) {
-        final CommandChain<S> chain = this.computedChains.get(command);
-        if (chain == null) {
-            throw new IllegalStateException("No command chain instance has been computed for command %s".formatted(command));
-        }
-
-        return chain;
-    }
-
-    private void executeAndInvokeListeners(final CommandContext<S> context, final CommandModule<S> command) throws CommandExecutionException {
+    // Returns null if a pre execution listener cancelled the execution
+    private @Nullable ExecutionResult<S> executeAndInvokeListeners(final PreparedCommand<S> prepared) {
+        final CommandContext<S> context = prepared.context();
         // If a pre execution listener cancels this execution, return
-        if (!invokePreExecutionListeners(context)) return;
+        if (!invokePreExecutionListeners(context)) return null;
 
-        final ExecutionResult<S> result = execute(context, command);
+        final ExecutionResult<S> result = execute(context, prepared.command());
         // Invoke post execution listeners
         this.postExecutionListeners.forEach(x -> x.invoke(result));
-
-        if (!result.successful()) {
-            throw new CommandExecutionException(result.asFailed().exception());
-        }
+        return result;
     }
 
     private boolean invokePreExecutionListeners(final CommandContext<S> context) {
@@ -203,104 +555,126 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
     }
 
     // Test conditions of literal and required arguments
-    private static <S> void testRequiredConditions(final CommandContext<S> context) throws UnfulfilledConditionException {
-        final CommandChain<S> chain = context.chain();
-        final List<CommandCondition<S>> conditions = Stream.concat(chain.route().stream(), chain.arguments().stream())
-                .map(CommandArgument::condition)
-                .filter(Optional::isPresent)
-                .map(Optional::orElseThrow)
-                .toList();
+    private static <S> void testRequiredConditions(final CommandContext<S> context, final ParsePlan<S> plan) throws UnfulfilledConditionException {
+        plan.requiredCondition().test(context);
+    }
 
-        for (final CommandCondition<S> condition : conditions) condition.test(context);
+    private static <S> CommandParseResult<S> processCommand(
+            final CommandContext<S> context,
+            final ParsePlan<S> plan,
+            final CommandInputTokenizer input
+    ) {
+        return processCommand(context, plan, input, CommandParseResult.createBuilder(plan.chain()), 0, null);
     }
 
-    private static <S> CommandParseResult<S> processCommand(final CommandContext<S> context, final CommandInputTokenizer input) {
-        final CommandChain<S> chain = context.chain();
-        final CommandParseResult.Builder<S> builder = CommandParseResult.createBuilder(chain);
+    /*
+     * Parses the input from its current position, with the state of the
+     * builder and the context matching that position. Records a checkpoint
+     * in the session (if any) at every token boundary.
+     */
+    private static <S> CommandParseResult<S> processCommand(
+            final CommandContext<S> context,
+            final ParsePlan<S> plan,
+            final CommandInputTokenizer input,
+            final CommandParseResult.Builder<S> builder,
+            final int fromArgument,
+            final @Nullable CompletionSessionImpl<S> session
+    ) {
+        final CommandChain<S> chain = plan.chain();
+        // Required arguments before this index are known to have been parsed already
+        int argumentIndex = fromArgument;
+        /*
+         * Failures are captured by the builder as values, and parsing stops
+         * at the first one. Only argument mappers and conditions report them
+         * by throwing, which is caught right at the call site.
+         */
         try {
             while (input.canReadNonWhitespace()) {
+                if (session != null) session.checkpoint(context, input, builder, argumentIndex);
                 final String arg = input.peekWord();
                 // Attempt to parse arg into a single flag or a group of flags
-                final Tuple2<List<CommandArgument.Flag<S, ?>>, Supplier<UnrecognizedFlagException>> flagResult = parseFlagGroup(arg, input, chain.flags());
-                if (flagResult.right().isPresent()) {
-                    /*
-                     * We do this to stay consistent with the rest of the library. If an
-                     * argument is inspected and was found to be incorrect, we remove it
-                     * from the remaining argument list.
-                     */
-                    input.readWord();
-                    throw flagResult.right().orElseThrow().get();
-                }
+                final int @Nullable [] flags = parseFlagGroup(arg, input, plan, builder);
+                // The expression was an unrecognized flag, which has been captured
+                if (flags == null) return builder.build();
 
-                final List<CommandArgument.Flag<S, ?>> flags = flagResult.left().orElseThrow();
-                // If the list is not empty, we managed to parse into at least one flag
-                if (flags.isEmpty()) {
+                // If the array is not empty, we managed to parse into at least one flag
+                if (flags.length == 0) {
                     // No flags were, matched, we retrieve the first unseen
                     // required argument.
-                    final Optional<CommandArgument.Required<S, ?>> required = firstUnseen(chain.arguments(), context);
-                    if (required.isPresent()) {
-                        consumeArgument(required.orElseThrow(), context, input, builder);
+                    argumentIndex = plan.nextArgument(context, argumentIndex);
+                    if (argumentIndex < plan.argumentCount()) {
+                        final @Nullable CommandException failure = consumeArgument(plan.argument(argumentIndex), context, input, builder);
+                        if (failure != null) return fail(builder, failure);
                     } else {
                         /*
-                         * At this point, we need to throw an exception to indicate to the
-                         * user that no more required arguments need to be passed.
+                         * At this point, we need to fail to indicate to the user that
+                         * no more required arguments need to be passed.
                          *
                          * 1) We either have more flags that can take values, in which
-                         *    case we throw an unrecognized flag exception, or
+                         *    case we fail with an unrecognized flag exception, or
                          *
-                         * 2) There could be no more flags, in which case we throw
+                         * 2) There could be no more flags, in which case we fail with
                          *    a syntax exception with the "TOO_MANY_ARGUMENTS" reason,
                          *    because we can't handle more arguments.
                          */
                         input.readWord(); // Consume the current argument to be inline with the rest of the code
-                        throw firstUnseen(chain.flags(), context).isPresent()
+                        return fail(builder, plan.hasUnseenFlag(context)
                                 ? input.internal().gen(arg, UnrecognizedFlagException::new)
-                                : new CommandSyntaxException(chain, CommandSyntaxException.Reason.TOO_MANY_ARGUMENTS);
+                                : new CommandSyntaxException(chain, CommandSyntaxException.Reason.TOO_MANY_ARGUMENTS));
                     }
 
                 } else {
                     // Get rid of the flag expression itself
                     input.readWord();
                     // Parse each flag argument
-                    for (final CommandArgument.Flag<S, ?> flag : flags) consumeFlag(flag, arg, context, input, builder);
+                    for (final int flag : flags) {
+                        final @Nullable CommandException failure = consumeFlag(flag, plan, arg, context, input, builder);
+                        if (failure != null) return fail(builder, failure);
+                    }
                 }
             }
+        } catch (final MissingInputException ex) {
+            // Words are only read after checking that there is one, so this is not expected
+            return fail(builder, ex);
+        }
 
-            verifyRequiredArguments(context, chain);
-        } catch (final CommandException ex) {
-            builder.capture(ex);
+        if (!hasRequiredArguments(context, plan, argumentIndex)) {
+            builder.capture(new CommandSyntaxException(chain, CommandSyntaxException.Reason.TOO_FEW_ARGUMENTS));
         }
 
         return builder.build();
     }
 
-    private static <S> void verifyRequiredArguments(final CommandContext<S> context, final CommandChain<S> chain) throws CommandSyntaxException {
+    private static <S> CommandParseResult<S> fail(final CommandParseResult.Builder<S> builder, final CommandException ex) {
+        builder.capture(ex);
+        return builder.build();
+    }
+
+    private static <S> boolean hasRequiredArguments(
+            final CommandContext<S> context,
+            final ParsePlan<S> plan,
+            final int argumentIndex
+    ) {
         /*
          * Verify that all non-flag arguments have been parsed. The reason we
          * only check non-flags is that flags are optional, so omitting them
          * is perfectly valid.
          */
-        if (firstUnseen(chain.arguments(), context).isPresent()) {
-            throw new CommandSyntaxException(chain, CommandSyntaxException.Reason.TOO_FEW_ARGUMENTS);
-        }
-    }
-
-    private static <S, C extends CommandArgument.Dynamic<S, ?>> Optional<C> firstUnseen(
-            final List<C> arguments,
-            final CommandContext<S> context
-    ) {
-        return arguments.stream().filter(x -> !context.has(x.key())).findFirst();
+        return plan.nextArgument(context, argumentIndex) == plan.argumentCount();
     }
 
-    private static <S, T> void consumeFlag(
-            final CommandArgument.Flag<S, T> flag,
+    // Returns the failure, if the flag could not be consumed
+    private static <S> @Nullable CommandException consumeFlag(
+            final int index,
+            final ParsePlan<S> plan,
             final String expression,
             final CommandContext<S> context,
             final CommandInputTokenizer input,
             final CommandParseResult.Builder<S> builder
-    ) throws CommandException {
+    ) {
+        final CommandArgument.Flag<S, ?> flag = plan.flag(index);
         if (context.has(flag.key())) {
-            throw input.internal().gen(expression, DuplicateFlagException::new);
+            return input.internal().gen(expression, DuplicateFlagException::new);
         }
 
         /*
@@ -308,50 +682,66 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
          * early like we do with literal and required arguments. So,
          * do the check now.
          */
-        final Optional<CommandCondition<S>> condition = flag.condition();
-        if (condition.isPresent()) {
-            condition.orElseThrow().test(context);
+        final @Nullable CommandCondition<S> condition = plan.flagCondition(index);
+        if (condition != null) {
+            try {
+                condition.test(context);
+            } catch (final UnfulfilledConditionException ex) {
+                return ex;
+            }
         }
 
-        consumeArgument(flag, context, input, builder);
+        return consumeArgument(flag, context, input, builder);
     }
 
-    private static <S, T> void consumeArgument(
+    // Returns the failure, if the argument could not be consumed
+    private static <S, T> @Nullable CommandException consumeArgument(
             final CommandArgument.Dynamic<S, T> argument,
             final CommandContext<S> context,
             final CommandInputTokenizer input,
             final CommandParseResult.Builder<S> builder
-    ) throws CommandException {
+    ) {
         try {
             // 1) Mark beginning
             builder.begin(argument);
-            // 2) Map argument into the correct type. This will throw an exception if
-            //    the conversion fails.
-            final T result = argument.mapper().tryMap(context, input);
-            // 3) Store the result in the current context
-            context.store(argument.key(), result);
-            // 4) Mark end
+            // 2) Map argument into the correct type and store the result in the
+            //    current context. This will throw an exception if the conversion
+            //    fails. Primitive mappers store their result without boxing it.
+            if (argument.mapper() instanceof PrimitiveArgumentMapper<S, T> primitive) {
+                primitive.mapInto(context, input, argument.key());
+            } else {
+                context.store(argument.key(), argument.mapper().tryMap(context, input));
+            }
+            // 3) Mark end
             if (input.canRead()) builder.end();
+            return null;
         } catch (final ArgumentMappingException ex) {
-          throw input.internal().gen(
-                  input.lastConsumed().orElseThrow(),
-                  (consumed, arg, remaining) -> new CommandArgumentException(ex, consumed, arg, remaining)
-          );
+            return input.internal().gen(
+                    input.lastConsumed().orElseThrow(),
+                    (in, cursor, arg) -> new CommandArgumentException(ex, in, cursor, arg)
+            );
         } catch (final MissingInputException ex) {
-            throw new CommandSyntaxException(context.chain(), CommandSyntaxException.Reason.TOO_FEW_ARGUMENTS);
+            return new CommandSyntaxException(context.chain(), CommandSyntaxException.Reason.TOO_FEW_ARGUMENTS);
         }
     }
 
-    private static <S> Tuple2<List<CommandArgument.Flag<S, ?>>, Supplier<UnrecognizedFlagException>> parseFlagGroup(
+    /*
+     * Returns the plan indices of the flags the expression refers to. The
+     * returned array is empty if the expression is not a flag expression,
+     * and null if it refers to an unrecognized flag, in which case the
+     * failure is captured by the builder.
+     */
+    private static <S> int @Nullable [] parseFlagGroup(
             final String expression,
             final CommandInputTokenizer input,
-            final List<CommandArgument.Flag<S, ?>> candidates
-    ) {
+            final ParsePlan<S> plan,
+            final CommandParseResult.Builder<S> builder
+    ) throws MissingInputException {
         /*
          * If the expression isn't even 2 characters long or doesn't start with
          * '-', it's not a flag group.
          */
-        if (expression.length() < 2 || expression.charAt(0) != SHORT_FLAG_PREFIX_CH) return new Tuple2<>(List.of(), null);
+        if (expression.length() < 2 || expression.charAt(0) != SHORT_FLAG_PREFIX_CH) return NO_FLAGS;
 
         /*
          * This means the expression is prefixed with '--' , it's either a long
@@ -359,100 +749,126 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
          */
         if (expression.charAt(1) == SHORT_FLAG_PREFIX_CH) {
             // The expression is literally '--' , which is not a valid flag group, returning.
-            if (expression.length() == 2) return new Tuple2<>(List.of(), null);
+            if (expression.length() == 2) return NO_FLAGS;
 
             // Long flag name, extract it
             final String flagName = expression.substring(2);
-            // Attempt to find a flag with the extracted name. Return unrecognized flag
-            // exception, if none was found.
-            final Optional<CommandArgument.Flag<S, ?>> candidate = candidates.stream()
-                    .filter(x -> x.name().equals(flagName))
-                    .findFirst();
-
-            return candidate.isPresent()
-                    ? new Tuple2<>(List.of(candidate.orElseThrow()), null)
-                    : new Tuple2<>(null, () -> input.internal().gen(expression,
-                            (consumed, arg, remaining) -> new UnrecognizedFlagException(consumed, arg, remaining, flagName)
-                    )
-            );
+            // Attempt to find a flag with the extracted name. Capture an unrecognized
+            // flag exception, if none was found.
+            final int index = plan.flagIndex(flagName);
+            if (index == ParsePlan.NOT_FOUND) {
+                builder.capture(unrecognizedFlag(expression, flagName, input));
+                return null;
+            }
+
+            return new int[] { index };
         } else {
             // We either have a single shorthand or a group of shorthands.
-            final char[] shorthands = expression.substring(1).toCharArray();
-            final List<CommandArgument.Flag<S, ?>> flags = new ArrayList<>();
+            final int[] flags = new int[expression.length() - 1];
 
             // Find flags by their shorthands
-            for (char c : shorthands) {
+            for (int i = 1; i < expression.length(); i++) {
+                final char c = expression.charAt(i);
                 /*
                  * Flag shorthands are expected to be alphabetic. If this
                  * argument is not, it isn't a flag shorthand either, thus
-                 * we return an empty optional, otherwise we could run into
+                 * we return an empty array, otherwise we could run into
                  * a problem of trying to interpret negative numbers as
                  * flag shorthands for instance.
                  */
-                if (!Character.isAlphabetic(c)) return new Tuple2<>(List.of(), null);
+                if (!Character.isAlphabetic(c)) return NO_FLAGS;
 
-                final Optional<CommandArgument.Flag<S, ?>> candidate = candidates.stream()
-                        .filter(x -> x.shorthand() == c)
-                        .findFirst();
-
-                if (candidate.isPresent()) {
-                    flags.add(candidate.orElseThrow());
-                } else {
-                    // Return an error if an incorrect shorthand was provided
-                    final Supplier<UnrecognizedFlagException> ex = () -> input.internal().gen(
-                            expression,
-                            (consumed, arg, remaining) -> new UnrecognizedFlagException(consumed, arg, remaining, String.valueOf(c))
-                    );
-                    return new Tuple2<>(null, ex);
+                final int index = plan.flagIndex(c);
+                // Fail if an incorrect shorthand was provided
+                if (index == ParsePlan.NOT_FOUND) {
+                    builder.capture(unrecognizedFlag(expression, String.valueOf(c), input));
+                    return null;
                 }
+
+                flags[i - 1] = index;
             }
 
-            return new Tuple2<>(List.copyOf(flags), null);
+            return flags;
         }
     }
 
-    private CompletionAccumulator collectCompletions(
-            final CommandContext<S> context,
-            final CommandInputTokenizer input,
-            final CommandParseResult<S> parseResult
-    ) {
-        final CommandArgument.Dynamic<S, ?> argument = resolveArgumentToComplete(parseResult);
+    private static UnrecognizedFlagException unrecognizedFlag(
+            final String expression,
+            final String flag,
+            final CommandInputTokenizer input
+    ) throws MissingInputException {
+        /*
+         * We do this to stay consistent with the rest of the library. If an
+         * argument is inspected and was found to be incorrect, we remove it
+         * from the remaining argument list.
+         */
+        input.readWord();
+        return input.internal().gen(
+                expression,
+                (in, cursor, arg) -> new UnrecognizedFlagException(in, cursor, arg, flag)
+        );
+    }
+
+    // Returns the part of the input that is being completed
+    private static String completionInput(final CommandInputTokenizer input) {
         final String lastConsumed = input.lastConsumed().orElseThrow();
         final boolean completeNext = input.canRead() || lastConsumed.isBlank();
-        final String argToComplete = completeNext
+        return completeNext
                 ? ""
                 : lastConsumed;
+    }
 
-        final CompletionBuilder builder = CompletionBuilder.of(this.completionFactory, argToComplete);
+    private CompletableFuture<CompletionAccumulator> collectCompletions(
+            final CommandContext<S> context,
+            final CommandParseResult<S> parseResult,
+            final CompletionBuilder builder,
+            final boolean async
+    ) {
+        final CommandArgument.Dynamic<S, ?> argument = resolveArgumentToComplete(parseResult);
+        // An empty input means that the next argument is being completed
+        final boolean completeNext = builder.input().isEmpty();
 
         return argument.isFlag()
-                ? collectFlagCompletions(context, parseResult, argument.asFlag(), completeNext, builder)
-                : collectArgumentCompletions(context, parseResult, argument, builder);
+                ? collectFlagCompletions(context, parseResult, argument.asFlag(), completeNext, builder, async)
+                : collectArgumentCompletions(context, parseResult, argument, builder, async);
     }
 
-    private CompletionAccumulator collectFlagCompletions(
+    private CompletableFuture<CompletionAccumulator> collectFlagCompletions(
             final CommandContext<S> context,
             final CommandParseResult<S> parseResult,
             final CommandArgument.Flag<S, ?> argument,
             final boolean completeNext,
-            final CompletionBuilder builder
+            final CompletionBuilder builder,
+            final boolean async
     ) {
         final boolean includeFlagNames = argument.isPresence() || !completeNext || parseResult.lastArgument().isEmpty();
         if (includeFlagNames) includeFlags(context, parseResult, builder);
 
         return argument.isPresence()
-                ? builder.build()
-                : argument.mapper().complete(context, builder);
+                ? CompletableFuture.completedFuture(builder.build())
+                : complete(argument.mapper(), context, builder, async);
     }
 
-    private CompletionAccumulator collectArgumentCompletions(
+    private CompletableFuture<CompletionAccumulator> collectArgumentCompletions(
             final CommandContext<S> context,
             final CommandParseResult<S> parseResult,
             final CommandArgument.Dynamic<S, ?> argument,
-            final CompletionBuilder builder
+            final CompletionBuilder builder,
+            final boolean async
     ) {
         final boolean includeFlags = this.eagerFlagCompletions || builder.input().startsWith(SHORT_FLAG_PREFIX);
-        return argument.mapper().complete(context, includeFlags ? includeFlags(context, parseResult, builder) : builder);
+        return complete(argument.mapper(), context, includeFlags ? includeFlags(context, parseResult, builder) : builder, async);
+    }
+
+    private static <S> CompletableFuture<CompletionAccumulator> complete(
+            final CompletionProvider<S> provider,
+            final CommandContext<S> context,
+            final CompletionBuilder builder,
+            final boolean async
+    ) {
+        return async
+                ? provider.completeAsync(context, builder)
+                : CompletableFuture.completedFuture(provider.complete(context, builder));
     }
 
     private CompletionBuilder includeFlags(
@@ -531,4 +947,80 @@ final class CommandDispatcherImpl<S> implements CommandDispatcher<S> {
 
         return true;
     }
+
+    /*
+     * Dispatches the commands of a batch one by one, as the outcomes are
+     * requested. The registrations are read again for every line, and the
+     * routes of the commands are cached between lines until the
+     * registrations change.
+     */
+    private final class BatchDispatch implements Iterator<DispatchOutcome<S>> {
+        private static final int ROUTE_CACHE_CAPACITY = 16;
+        private final S source;
+        private final Iterator<String> commands;
+        private final boolean stopOnFailure;
+        private final RouteCache<S> routes = RouteCache.create(ROUTE_CACHE_CAPACITY);
+        // The registration generation the cached routes were looked up in
+        private long generation = CommandDispatcherImpl.this.registrationGeneration;
+        private boolean stopped;
+
+        private BatchDispatch(final S source, final Iterator<String> commands, final boolean stopOnFailure) {
+            this.source = requireNonNull(source, "source cannot be null");
+            this.commands = requireNonNull(commands, "commands cannot be null");
+            this.stopOnFailure = stopOnFailure;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.stopped && this.commands.hasNext();
+        }
+
+        @Override
+        public DispatchOutcome<S> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+
+            final String command = requireNonNull(this.commands.next(), "command cannot be null");
+            final DispatchOutcome<S> outcome = dispatchPrepared(prepare(command));
+            if (this.stopOnFailure && !outcome.successful()) this.stopped = true;
+
+            return outcome;
+        }
+
+        private Tuple2<PreparedCommand<S>, CommandException> prepare(final String command) {
+            // Read the generation first, so that routes are never stamped with a newer one than they were looked up in
+            final long generation = CommandDispatcherImpl.this.registrationGeneration;
+            if (generation != this.generation) {
+                this.routes.clear();
+                this.generation = generation;
+            }
+
+            final CommandRegistry<S> registry = CommandDispatcherImpl.this.registry;
+            final @Nullable Tuple2<PreparedCommand<S>, CommandException> cached = tryPrepareCached(registry, this.source, command);
+            if (cached != null) return cached;
+
+            final RouteCache.@Nullable Route<S> route = this.routes.find(command);
+            // The command may have been unregistered concurrently, in which case the route is looked up again
+            if (route != null && registry.contains(route.command())) {
+                return tryPrepare(registry, this.source, route.command(), route.input(command));
+            }
+
+            final CommandInputTokenizer input = CommandInputTokenizer.wrap(command);
+            final Tuple2<CommandModule<S>, NoSuchCommandException> lookup = registry.graph().lookup(input);
+            final Optional<NoSuchCommandException> noSuchCommand = lookup.right();
+            if (noSuchCommand.isPresent()) return new Tuple2<>(null, noSuchCommand.orElseThrow());
+
+            final CommandModule<S> cmd = lookup.left().orElseThrow();
+            this.routes.remember(input, cmd);
+            return tryPrepare(registry, this.source, cmd, input);
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("source", this.source)
+                    .append("stopOnFailure", this.stopOnFailure)
+                    .append("stopped", this.stopped)
+                    .toString();
+        }
+    }
 }
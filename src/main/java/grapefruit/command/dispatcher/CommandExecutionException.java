@@ -9,6 +9,7 @@ public class CommandExecutionException extends CommandException {
     private static final long serialVersionUID = 3033014139998396572L;
 
     public CommandExecutionException(final Throwable cause) {
-        super(cause);
+        // Failures of the command itself are rare and worth a stack trace
+        super(cause, true);
     }
 }
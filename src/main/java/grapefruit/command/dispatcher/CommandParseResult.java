@@ -44,6 +44,9 @@ public interface CommandParseResult<S> {
 
         void capture(final CommandException ex);
 
+        // Creates a copy of this builder, which can be modified independently of this instance
+        Builder<S> copy();
+
         CommandParseResult<S> build();
     }
 }
@@ -5,6 +5,7 @@ import grapefruit.command.argument.CommandArgument;
 import grapefruit.command.util.ToStringer;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -98,6 +99,14 @@ final class CommandParseResultImpl<S> implements CommandParseResult<S> {
             this.capturedException = requireNonNull(ex, "ex cannot be null");
         }
 
+        @Override
+        public CommandParseResult.Builder<S> copy() {
+            final Builder<S> copy = new Builder<>(new ArrayList<>(this.arguments), new ArrayList<>(this.flags));
+            copy.argument = this.argument;
+            copy.capturedException = this.capturedException;
+            return copy;
+        }
+
         @Override
         public CommandParseResult<S> build() {
             return new CommandParseResultImpl<>(this.argument, this.capturedException, this.arguments, this.flags);
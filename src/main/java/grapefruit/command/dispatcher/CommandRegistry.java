@@ -0,0 +1,70 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.argument.CommandChain;
+import grapefruit.command.tree.CommandGraph;
+import grapefruit.command.util.ToStringer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+final class CommandRegistry<S> {
+    private final CommandGraph<S> commandGraph;
+    // Store the parse plans of computed CommandChain instances mapped to their respective CommandModule.
+    private final Map<CommandModule<S>, ParsePlan<S>> computedPlans;
+
+    private CommandRegistry(final CommandGraph<S> commandGraph, final Map<CommandModule<S>, ParsePlan<S>> computedPlans) {
+        this.commandGraph = requireNonNull(commandGraph, "commandGraph cannot be null");
+        this.computedPlans = requireNonNull(computedPlans, "computedPlans cannot be null");
+    }
+
+    static <S> CommandRegistry<S> create() {
+        return new CommandRegistry<>(new CommandGraph<>(), new HashMap<>());
+    }
+
+    CommandGraph<S> graph() {
+        return this.commandGraph;
+    }
+
+    boolean contains(final CommandModule<S> command) {
+        return this.computedPlans.containsKey(command);
+    }
+
+    void register(final CommandModule<S> command, final CommandChain<S> chain) {
+        // Compile the plan first, so that a failure leaves the graph untouched
+        final ParsePlan<S> plan = ParsePlan.compile(chain);
+        this.commandGraph.insert(chain, command);
+        this.computedPlans.put(command, plan);
+    }
+
+    void unregister(final CommandModule<S> command, final CommandChain<S> chain) {
+        this.commandGraph.delete(chain);
+        this.computedPlans.remove(command);
+    }
+
+    ParsePlan<S> requirePlan(final CommandModule<S> command) {
+        final ParsePlan<S> plan = this.computedPlans.get(command);
+        if (plan == null) {
+            throw new IllegalStateException("No command chain instance has been computed for command %s".formatted(command));
+        }
+
+        return plan;
+    }
+
+    /*
+     * Creates an immutable copy of this registry that can safely be shared
+     * between threads.
+     */
+    CommandRegistry<S> snapshot() {
+        return new CommandRegistry<>(this.commandGraph.snapshot(), Map.copyOf(this.computedPlans));
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("computedPlans", this.computedPlans)
+                .toString();
+    }
+}
@@ -0,0 +1,31 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.completion.CommandCompletion;
+import grapefruit.command.completion.CompletionRequest;
+
+import java.util.List;
+
+/*
+ * Completes commands for a single source, remembering the parse state of
+ * the previous input. If the next input only differs after a token that
+ * has already been parsed, parsing resumes from that token instead of
+ * starting over. This makes completing as the user types proportional to
+ * the size of the edit rather than the length of the input.
+ *
+ * The context decorator is only applied when parsing starts over, and
+ * argument mappers are expected not to depend on input beyond what they
+ * consume.
+ */
+public interface CompletionSession<S> {
+
+    S source();
+
+    default List<CommandCompletion> complete(final String command) {
+        return complete(command, CompletionRequest.unlimited());
+    }
+
+    List<CommandCompletion> complete(final String command, final CompletionRequest request);
+
+    // Discards the remembered parse state, so that the next input is parsed from the start
+    void invalidate();
+}
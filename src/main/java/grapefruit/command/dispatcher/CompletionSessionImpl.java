@@ -0,0 +1,177 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.completion.CommandCompletion;
+import grapefruit.command.completion.CompletionRequest;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+final class CompletionSessionImpl<S> implements CompletionSession<S> {
+    private final CommandDispatcherImpl<S> dispatcher;
+    private final S source;
+    /* State of the previous completion */
+    private @Nullable String input;
+    private @Nullable CommandModule<S> command;
+    private @Nullable ParsePlan<S> plan;
+    // Ordered by cursor position
+    private final List<Checkpoint<S>> checkpoints = new ArrayList<>();
+
+    CompletionSessionImpl(final CommandDispatcherImpl<S> dispatcher, final S source) {
+        this.dispatcher = requireNonNull(dispatcher, "dispatcher cannot be null");
+        this.source = requireNonNull(source, "source cannot be null");
+    }
+
+    @Override
+    public S source() {
+        return this.source;
+    }
+
+    @Override
+    public synchronized List<CommandCompletion> complete(final String command, final CompletionRequest request) {
+        requireNonNull(command, "command cannot be null");
+        requireNonNull(request, "request cannot be null");
+        final List<CommandCompletion> completions = this.dispatcher.complete(this, command, request);
+        this.input = command;
+        return completions;
+    }
+
+    @Override
+    public synchronized void invalidate() {
+        reset();
+    }
+
+    void reset() {
+        this.input = null;
+        this.command = null;
+        this.plan = null;
+        this.checkpoints.clear();
+    }
+
+    void begin(final CommandModule<S> command, final ParsePlan<S> plan) {
+        reset();
+        this.command = requireNonNull(command, "command cannot be null");
+        this.plan = requireNonNull(plan, "plan cannot be null");
+    }
+
+    CommandModule<S> command() {
+        if (this.command == null) throw new IllegalStateException("No command is being completed");
+        return this.command;
+    }
+
+    ParsePlan<S> plan() {
+        if (this.plan == null) throw new IllegalStateException("No command is being completed");
+        return this.plan;
+    }
+
+    /*
+     * Returns the latest checkpoint the provided input can be parsed from,
+     * or null if parsing has to start over.
+     */
+    @Nullable Checkpoint<S> resume(final CommandRegistry<S> registry, final String input) {
+        if (this.input == null || this.command == null) return null;
+        // The command has been unregistered or replaced since
+        if (!registry.contains(this.command) || registry.requirePlan(this.command) != this.plan) {
+            reset();
+            return null;
+        }
+
+        for (int i = this.checkpoints.size() - 1; i >= 0; i--) {
+            final Checkpoint<S> checkpoint = this.checkpoints.get(i);
+            // The whitespace following the checkpoint must be unchanged as well
+            final int length = checkpoint.cursor + 1;
+            if (input.length() >= length && input.regionMatches(0, this.input, 0, length)) {
+                // Later checkpoints will be recorded again while parsing
+                this.checkpoints.subList(i + 1, this.checkpoints.size()).clear();
+                return checkpoint;
+            }
+        }
+
+        reset();
+        return null;
+    }
+
+    // Records the parse state at the current position of the input
+    void checkpoint(
+            final CommandContext<S> context,
+            final CommandInputTokenizer input,
+            final CommandParseResult.Builder<S> builder,
+            final int argumentIndex
+    ) {
+        // Only positions followed by whitespace are token boundaries that are safe to resume from
+        if (!Character.isWhitespace(input.peek())) return;
+
+        final int cursor = input.cursor();
+        if (!this.checkpoints.isEmpty() && this.checkpoints.getLast().cursor >= cursor) return;
+
+        final int lastConsumedFrom = cursor - input.lastConsumed().map(String::length).orElse(0);
+        this.checkpoints.add(new Checkpoint<>(cursor, lastConsumedFrom, copy(context), builder.copy(), argumentIndex));
+    }
+
+    private static <S> CommandContext<S> copy(final CommandContext<S> context) {
+        return context instanceof SynchronizedCommandContext<S> synced
+                ? synced.copy()
+                : ((CommandContextImpl<S>) context).copy();
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("source", this.source)
+                .append("input", this.input)
+                .append("command", this.command)
+                .toString();
+    }
+
+    static final class Checkpoint<S> {
+        private final int cursor;
+        private final int lastConsumedFrom;
+        private final CommandContext<S> context;
+        private final CommandParseResult.Builder<S> builder;
+        private final int argumentIndex;
+
+        private Checkpoint(
+                final int cursor,
+                final int lastConsumedFrom,
+                final CommandContext<S> context,
+                final CommandParseResult.Builder<S> builder,
+                final int argumentIndex
+        ) {
+            this.cursor = cursor;
+            this.lastConsumedFrom = lastConsumedFrom;
+            this.context = context;
+            this.builder = builder;
+            this.argumentIndex = argumentIndex;
+        }
+
+        CommandInputTokenizer input(final String input) {
+            return CommandInputTokenizer.resume(input, this.lastConsumedFrom, this.cursor);
+        }
+
+        // Returns a copy, so that this checkpoint can be resumed from multiple times
+        CommandContext<S> context() {
+            return copy(this.context);
+        }
+
+        CommandParseResult.Builder<S> builder() {
+            return this.builder.copy();
+        }
+
+        int argumentIndex() {
+            return this.argumentIndex;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("cursor", this.cursor)
+                    .append("argumentIndex", this.argumentIndex)
+                    .toString();
+        }
+    }
+}
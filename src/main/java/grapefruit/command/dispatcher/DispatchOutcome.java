@@ -0,0 +1,59 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandException;
+import grapefruit.command.argument.condition.UnfulfilledConditionException;
+import grapefruit.command.tree.NoSuchCommandException;
+
+/*
+ * The outcome of CommandDispatcher#tryDispatch. User errors are reported
+ * as one of the failed outcomes instead of being thrown.
+ */
+public sealed interface DispatchOutcome<S> permits
+        DispatchOutcome.Successful,
+        DispatchOutcome.Cancelled,
+        DispatchOutcome.SyntaxError,
+        DispatchOutcome.NoSuchCommand,
+        DispatchOutcome.ConditionFailed,
+        DispatchOutcome.ExecutionFailed {
+
+    boolean successful();
+
+    // The command was executed without throwing an exception
+    sealed interface Successful<S> extends DispatchOutcome<S> permits DispatchOutcomeImpl.Successful {
+
+        CommandContext<S> context();
+    }
+
+    // A pre execution listener cancelled the execution of the command
+    sealed interface Cancelled<S> extends DispatchOutcome<S> permits DispatchOutcomeImpl.Cancelled {
+
+        CommandContext<S> context();
+    }
+
+    /*
+     * The arguments of the command could not be parsed. The exception is
+     * either a CommandSyntaxException or a CommandArgumentException.
+     */
+    sealed interface SyntaxError<S> extends DispatchOutcome<S> permits DispatchOutcomeImpl.SyntaxError {
+
+        CommandException exception();
+    }
+
+    sealed interface NoSuchCommand<S> extends DispatchOutcome<S> permits DispatchOutcomeImpl.NoSuchCommand {
+
+        NoSuchCommandException exception();
+    }
+
+    sealed interface ConditionFailed<S> extends DispatchOutcome<S> permits DispatchOutcomeImpl.ConditionFailed {
+
+        UnfulfilledConditionException exception();
+    }
+
+    // The command threw an exception during its execution
+    sealed interface ExecutionFailed<S> extends DispatchOutcome<S> permits DispatchOutcomeImpl.ExecutionFailed {
+
+        CommandContext<S> context();
+
+        Throwable exception();
+    }
+}
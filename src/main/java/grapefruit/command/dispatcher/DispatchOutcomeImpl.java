@@ -0,0 +1,191 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandException;
+import grapefruit.command.argument.condition.UnfulfilledConditionException;
+import grapefruit.command.tree.NoSuchCommandException;
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import static java.util.Objects.requireNonNull;
+
+final class DispatchOutcomeImpl {
+
+    private DispatchOutcomeImpl() {}
+
+    // Maps an exception thrown before the execution of a command to the matching outcome
+    static <S> DispatchOutcome<S> failed(final CommandException ex) {
+        requireNonNull(ex, "ex cannot be null");
+        if (ex instanceof NoSuchCommandException noSuchCommand) return new NoSuchCommand<>(noSuchCommand);
+        if (ex instanceof UnfulfilledConditionException condition) return new ConditionFailed<>(condition);
+
+        return new SyntaxError<>(ex);
+    }
+
+    // Maps the result of an execution to the matching outcome, a null result meaning a cancelled execution
+    static <S> DispatchOutcome<S> executed(final CommandContext<S> context, final @Nullable ExecutionResult<S> result) {
+        requireNonNull(context, "context cannot be null");
+        if (result == null) return new Cancelled<>(context);
+
+        return result.successful()
+                ? new Successful<>(context)
+                : new ExecutionFailed<>(context, result.asFailed().exception());
+    }
+
+    static final class Successful<S> implements DispatchOutcome.Successful<S> {
+        private final CommandContext<S> context;
+
+        Successful(final CommandContext<S> context) {
+            this.context = requireNonNull(context, "context cannot be null");
+        }
+
+        @Override
+        public CommandContext<S> context() {
+            return this.context;
+        }
+
+        @Override
+        public boolean successful() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("context", this.context)
+                    .toString();
+        }
+    }
+
+    static final class Cancelled<S> implements DispatchOutcome.Cancelled<S> {
+        private final CommandContext<S> context;
+
+        Cancelled(final CommandContext<S> context) {
+            this.context = requireNonNull(context, "context cannot be null");
+        }
+
+        @Override
+        public CommandContext<S> context() {
+            return this.context;
+        }
+
+        @Override
+        public boolean successful() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("context", this.context)
+                    .toString();
+        }
+    }
+
+    static final class SyntaxError<S> implements DispatchOutcome.SyntaxError<S> {
+        private final CommandException exception;
+
+        SyntaxError(final CommandException exception) {
+            this.exception = requireNonNull(exception, "exception cannot be null");
+        }
+
+        @Override
+        public CommandException exception() {
+            return this.exception;
+        }
+
+        @Override
+        public boolean successful() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("exception", this.exception)
+                    .toString();
+        }
+    }
+
+    static final class NoSuchCommand<S> implements DispatchOutcome.NoSuchCommand<S> {
+        private final NoSuchCommandException exception;
+
+        NoSuchCommand(final NoSuchCommandException exception) {
+            this.exception = requireNonNull(exception, "exception cannot be null");
+        }
+
+        @Override
+        public NoSuchCommandException exception() {
+            return this.exception;
+        }
+
+        @Override
+        public boolean successful() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("exception", this.exception)
+                    .toString();
+        }
+    }
+
+    static final class ConditionFailed<S> implements DispatchOutcome.ConditionFailed<S> {
+        private final UnfulfilledConditionException exception;
+
+        ConditionFailed(final UnfulfilledConditionException exception) {
+            this.exception = requireNonNull(exception, "exception cannot be null");
+        }
+
+        @Override
+        public UnfulfilledConditionException exception() {
+            return this.exception;
+        }
+
+        @Override
+        public boolean successful() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("exception", this.exception)
+                    .toString();
+        }
+    }
+
+    static final class ExecutionFailed<S> implements DispatchOutcome.ExecutionFailed<S> {
+        private final CommandContext<S> context;
+        private final Throwable exception;
+
+        ExecutionFailed(final CommandContext<S> context, final Throwable exception) {
+            this.context = requireNonNull(context, "context cannot be null");
+            this.exception = requireNonNull(exception, "exception cannot be null");
+        }
+
+        @Override
+        public CommandContext<S> context() {
+            return this.context;
+        }
+
+        @Override
+        public Throwable exception() {
+            return this.exception;
+        }
+
+        @Override
+        public boolean successful() {
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("context", this.context)
+                    .append("exception", this.exception)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Limits the number of concurrent executions per command source. An
+ * execution is only handed to its executor once its source is below the
+ * limit; until then it waits in a queue of that source, so that a source
+ * flooding commands never occupies more executor threads than it is
+ * allowed to run. Sources without running or waiting executions are not
+ * retained.
+ */
+final class ExecutionLimiter<S> {
+    // Guarded by 'this'
+    private final Map<S, Slot<S>> slots = new HashMap<>();
+    private final int maxExecutions;
+
+    ExecutionLimiter(final int maxExecutions) {
+        if (maxExecutions < 1) throw new IllegalArgumentException("maxExecutions must be positive");
+        this.maxExecutions = maxExecutions;
+    }
+
+    void submit(final S source, final AsyncExecution<S> execution, final Executor executor) {
+        requireNonNull(source, "source cannot be null");
+        final Pending<S> pending = new Pending<>(
+                requireNonNull(execution, "execution cannot be null"),
+                requireNonNull(executor, "executor cannot be null")
+        );
+
+        final boolean admitted;
+        synchronized (this) {
+            final Slot<S> slot = this.slots.computeIfAbsent(source, x -> new Slot<>());
+            admitted = slot.running < this.maxExecutions;
+            if (admitted) {
+                slot.running++;
+            } else {
+                slot.pending.add(pending);
+            }
+        }
+
+        if (admitted) start(source, pending);
+    }
+
+    private void start(final S source, final Pending<S> pending) {
+        @Nullable Pending<S> next = pending;
+        // Loop instead of recursing, in case the executor keeps rejecting executions
+        while (next != null) {
+            final Pending<S> current = next;
+            try {
+                current.executor.execute(() -> {
+                    try {
+                        current.execution.run();
+                    } finally {
+                        release(source);
+                    }
+                });
+                return;
+            } catch (final RejectedExecutionException ex) {
+                current.execution.future().completeExceptionally(ex);
+                next = poll(source);
+            }
+        }
+    }
+
+    private void release(final S source) {
+        final @Nullable Pending<S> next = poll(source);
+        if (next != null) start(source, next);
+    }
+
+    /*
+     * Frees the permit of a finished execution by handing it over to the
+     * next waiting execution of the source, which is returned, or returns
+     * null if there is none. Waiting executions that have been cancelled
+     * in the meantime are dropped.
+     */
+    private synchronized @Nullable Pending<S> poll(final S source) {
+        final Slot<S> slot = this.slots.get(source);
+        @Nullable Pending<S> next;
+        do {
+            next = slot.pending.poll();
+        } while (next != null && next.execution.future().isDone());
+
+        if (next == null && --slot.running == 0) this.slots.remove(source);
+        return next;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return ToStringer.create(this)
+                .append("maxExecutions", this.maxExecutions)
+                .append("slots", this.slots)
+                .toString();
+    }
+
+    private static final class Slot<S> {
+        private final Queue<Pending<S>> pending = new ArrayDeque<>();
+        private int running;
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("running", this.running)
+                    .append("pending", this.pending.size())
+                    .toString();
+        }
+    }
+
+    private static final class Pending<S> {
+        private final AsyncExecution<S> execution;
+        private final Executor executor;
+
+        private Pending(final AsyncExecution<S> execution, final Executor executor) {
+            this.execution = execution;
+            this.executor = executor;
+        }
+    }
+}
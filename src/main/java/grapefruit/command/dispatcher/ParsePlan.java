@@ -0,0 +1,182 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.argument.CommandArgument;
+import grapefruit.command.argument.CommandChain;
+import grapefruit.command.argument.condition.CommandCondition;
+import grapefruit.command.util.ToStringer;
+import grapefruit.command.util.key.Key;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Lookup tables computed from a command chain at registration time, so
+ * that parsing doesn't have to search the argument lists of the chain
+ * for every token.
+ */
+final class ParsePlan<S> {
+    static final int NOT_FOUND = -1;
+    // Shorthands in the ASCII range are resolved with a direct table lookup
+    private static final int SHORTHAND_TABLE_SIZE = 128;
+    private final CommandChain<S> chain;
+    private final CommandArgument.Required<S, ?>[] arguments;
+    private final CommandArgument.Flag<S, ?>[] flags;
+    // Flag conditions, indexed the same way as this.flags
+    private final @Nullable CommandCondition<S>[] flagConditions;
+    // Conditions of literal and required arguments, flattened and ordered by cost
+    private final CommandCondition<S> requiredCondition;
+    private final Map<String, Integer> flagsByName;
+    private final int[] flagsByShorthand;
+    private final Map<Character, Integer> flagsByNonAsciiShorthand;
+    // Context slots, assigned to the keys of required arguments and flags in this order
+    private final Key<?>[] slotKeys;
+    private final Map<Key<?>, Integer> slots;
+    // Whether every argument and flag is mapped by a pure mapper
+    private final boolean pure;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ParsePlan(final CommandChain<S> chain) {
+        this.chain = requireNonNull(chain, "chain cannot be null");
+        this.arguments = chain.arguments().toArray(CommandArgument.Required[]::new);
+        this.flags = chain.flags().toArray(CommandArgument.Flag[]::new);
+        this.flagConditions = new CommandCondition[this.flags.length];
+
+        final Map<String, Integer> flagsByName = new HashMap<>();
+        final Map<Character, Integer> flagsByNonAsciiShorthand = new HashMap<>();
+        this.flagsByShorthand = new int[SHORTHAND_TABLE_SIZE];
+        Arrays.fill(this.flagsByShorthand, NOT_FOUND);
+
+        for (int i = 0; i < this.flags.length; i++) {
+            final CommandArgument.Flag<S, ?> flag = this.flags[i];
+            this.flagConditions[i] = flag.condition().orElse(null);
+            flagsByName.putIfAbsent(flag.name(), i);
+
+            final char shorthand = flag.shorthand();
+            if (shorthand == 0) continue;
+
+            if (shorthand < SHORTHAND_TABLE_SIZE) {
+                if (this.flagsByShorthand[shorthand] == NOT_FOUND) this.flagsByShorthand[shorthand] = i;
+            } else {
+                flagsByNonAsciiShorthand.putIfAbsent(shorthand, i);
+            }
+        }
+
+        this.flagsByName = Map.copyOf(flagsByName);
+        this.flagsByNonAsciiShorthand = Map.copyOf(flagsByNonAsciiShorthand);
+
+        final List<CommandCondition<S>> requiredConditions = new ArrayList<>();
+        for (final CommandArgument<S, ?> argument : chain.route()) argument.condition().ifPresent(requiredConditions::add);
+        for (final CommandArgument<S, ?> argument : this.arguments) argument.condition().ifPresent(requiredConditions::add);
+        this.requiredCondition = CommandCondition.and(requiredConditions);
+
+        final Map<Key<?>, Integer> slots = new HashMap<>();
+        final List<Key<?>> slotKeys = new ArrayList<>();
+        for (final CommandArgument<S, ?> argument : this.arguments) assignSlot(argument.key(), slots, slotKeys);
+        for (final CommandArgument<S, ?> argument : this.flags) assignSlot(argument.key(), slots, slotKeys);
+        // Not copied with Map.copyOf, which would reject null keys on lookup
+        this.slots = slots;
+        this.slotKeys = slotKeys.toArray(Key[]::new);
+
+        boolean pure = true;
+        for (final CommandArgument.Dynamic<S, ?> argument : this.arguments) pure &= argument.mapper().isPure();
+        for (final CommandArgument.Dynamic<S, ?> argument : this.flags) pure &= argument.mapper().isPure();
+        this.pure = pure;
+    }
+
+    private static void assignSlot(final Key<?> key, final Map<Key<?>, Integer> slots, final List<Key<?>> slotKeys) {
+        if (slots.putIfAbsent(key, slotKeys.size()) == null) slotKeys.add(key);
+    }
+
+    static <S> ParsePlan<S> compile(final CommandChain<S> chain) {
+        return new ParsePlan<>(chain);
+    }
+
+    CommandChain<S> chain() {
+        return this.chain;
+    }
+
+    int argumentCount() {
+        return this.arguments.length;
+    }
+
+    CommandArgument.Required<S, ?> argument(final int index) {
+        return this.arguments[index];
+    }
+
+    /*
+     * Returns the index of the first required argument at or after 'from'
+     * that has no value in the context yet, or argumentCount() if there
+     * is none.
+     */
+    int nextArgument(final CommandContext<S> context, final int from) {
+        int i = from;
+        while (i < this.arguments.length && context.has(this.arguments[i].key())) i++;
+        return i;
+    }
+
+    int flagCount() {
+        return this.flags.length;
+    }
+
+    CommandArgument.Flag<S, ?> flag(final int index) {
+        return this.flags[index];
+    }
+
+    @Nullable CommandCondition<S> flagCondition(final int index) {
+        return this.flagConditions[index];
+    }
+
+    int flagIndex(final String name) {
+        final @Nullable Integer index = this.flagsByName.get(name);
+        return index == null ? NOT_FOUND : index;
+    }
+
+    int flagIndex(final char shorthand) {
+        if (shorthand < SHORTHAND_TABLE_SIZE) return this.flagsByShorthand[shorthand];
+
+        final @Nullable Integer index = this.flagsByNonAsciiShorthand.get(shorthand);
+        return index == null ? NOT_FOUND : index;
+    }
+
+    boolean hasUnseenFlag(final CommandContext<S> context) {
+        for (final CommandArgument.Flag<S, ?> flag : this.flags) {
+            if (!context.has(flag.key())) return true;
+        }
+
+        return false;
+    }
+
+    CommandCondition<S> requiredCondition() {
+        return this.requiredCondition;
+    }
+
+    int slotCount() {
+        return this.slotKeys.length;
+    }
+
+    Key<?> slotKey(final int slot) {
+        return this.slotKeys[slot];
+    }
+
+    boolean isPure() {
+        return this.pure;
+    }
+
+    int slot(final Key<?> key) {
+        final @Nullable Integer slot = this.slots.get(key);
+        return slot == null ? NOT_FOUND : slot;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("chain", this.chain)
+                .toString();
+    }
+}
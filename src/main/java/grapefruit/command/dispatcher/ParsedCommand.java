@@ -0,0 +1,105 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.argument.CommandArgument;
+import grapefruit.command.argument.condition.CommandCondition;
+import grapefruit.command.argument.condition.UnfulfilledConditionException;
+import grapefruit.command.util.ToStringer;
+import grapefruit.command.util.key.Key;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * The argument values parsed from an input, for a command whose arguments
+ * are all mapped by pure mappers. Since those values don't depend on the
+ * source, they can be stored into the context of any later dispatch of the
+ * same input. Conditions may depend on the source, so they are not part of
+ * this, and have to be tested for every dispatch.
+ */
+final class ParsedCommand<S> {
+    private final CommandRegistry<S> registry;
+    private final CommandModule<S> command;
+    private final ParsePlan<S> plan;
+    private final Key<?>[] keys;
+    private final Object[] values;
+
+    private ParsedCommand(
+            final CommandRegistry<S> registry,
+            final CommandModule<S> command,
+            final ParsePlan<S> plan,
+            final Key<?>[] keys,
+            final Object[] values
+    ) {
+        this.registry = requireNonNull(registry, "registry cannot be null");
+        this.command = requireNonNull(command, "command cannot be null");
+        this.plan = requireNonNull(plan, "plan cannot be null");
+        this.keys = requireNonNull(keys, "keys cannot be null");
+        this.values = requireNonNull(values, "values cannot be null");
+    }
+
+    // Captures the values of the context that has just been parsed using the plan
+    static <S> ParsedCommand<S> capture(
+            final CommandRegistry<S> registry,
+            final CommandModule<S> command,
+            final ParsePlan<S> plan,
+            final CommandContext<S> context
+    ) {
+        final List<Key<?>> keys = new ArrayList<>(plan.slotCount());
+        final List<Object> values = new ArrayList<>(plan.slotCount());
+        for (int i = 0; i < plan.slotCount(); i++) {
+            final Key<?> key = plan.slotKey(i);
+            if (!context.has(key)) continue;
+
+            keys.add(key);
+            values.add(context.require(key));
+        }
+
+        return new ParsedCommand<>(registry, command, plan, keys.toArray(Key[]::new), values.toArray());
+    }
+
+    // The registry this command has been parsed with. Only valid for dispatches using the same registry.
+    CommandRegistry<S> registry() {
+        return this.registry;
+    }
+
+    CommandModule<S> command() {
+        return this.command;
+    }
+
+    ParsePlan<S> plan() {
+        return this.plan;
+    }
+
+    /*
+     * Stores the parsed values into the context, testing the conditions of
+     * the flags that are present, like parsing the input would.
+     */
+    void restore(final CommandContext<S> context) throws UnfulfilledConditionException {
+        for (int i = 0; i < this.keys.length; i++) store(context, this.keys[i], this.values[i]);
+
+        for (int i = 0; i < this.plan.flagCount(); i++) {
+            final @Nullable CommandCondition<S> condition = this.plan.flagCondition(i);
+            final CommandArgument.Flag<S, ?> flag = this.plan.flag(i);
+            if (condition != null && context.has(flag.key())) condition.test(context);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S, T> void store(final CommandContext<S> context, final Key<T> key, final Object value) {
+        // The value has been stored with the same key before
+        context.store(key, (T) value);
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("command", this.command)
+                .append("keys", Arrays.asList(this.keys))
+                .toString();
+    }
+}
@@ -0,0 +1,36 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.util.ToStringer;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * A command that has been parsed and whose required conditions have
+ * been tested, ready to be executed.
+ */
+final class PreparedCommand<S> {
+    private final CommandModule<S> command;
+    private final CommandContext<S> context;
+
+    PreparedCommand(final CommandModule<S> command, final CommandContext<S> context) {
+        this.command = requireNonNull(command, "command cannot be null");
+        this.context = requireNonNull(context, "context cannot be null");
+    }
+
+    CommandModule<S> command() {
+        return this.command;
+    }
+
+    CommandContext<S> context() {
+        return this.context;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("command", this.command)
+                .append("context", this.context)
+                .toString();
+    }
+}
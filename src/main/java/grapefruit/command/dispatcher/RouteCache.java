@@ -0,0 +1,107 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Remembers the routes (the part of the input naming the command) that
+ * resolved to leaf commands, so that lines starting with the same route
+ * can skip the graph lookup. Since the lookup stops at leaf nodes, the
+ * rest of the input can't change its result. Routes are matched as typed,
+ * so a route using a different alias or casing is looked up again.
+ */
+final class RouteCache<S> {
+    private final int capacity;
+    // Most recently used first
+    private final List<Route<S>> routes;
+
+    private RouteCache(final int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        this.routes = new ArrayList<>(capacity);
+    }
+
+    static <S> RouteCache<S> create(final int capacity) {
+        return new RouteCache<>(capacity);
+    }
+
+    @Nullable Route<S> find(final String command) {
+        for (int i = 0; i < this.routes.size(); i++) {
+            final Route<S> route = this.routes.get(i);
+            if (route.matches(command)) {
+                if (i != 0) this.routes.add(0, this.routes.remove(i));
+                return route;
+            }
+        }
+
+        return null;
+    }
+
+    void clear() {
+        this.routes.clear();
+    }
+
+    /*
+     * Remembers the route the input has been looked up with, if it is known
+     * to have resolved to a leaf command, which is the case if the lookup
+     * left some input unread.
+     */
+    void remember(final CommandInputTokenizer input, final CommandModule<S> command) {
+        if (!input.canReadNonWhitespace()) return;
+
+        final int cursor = input.cursor();
+        final int lastConsumedFrom = cursor - input.lastConsumed().map(String::length).orElse(0);
+        if (this.routes.size() == this.capacity) this.routes.remove(this.capacity - 1);
+        this.routes.add(0, new Route<>(input.input().substring(0, cursor), lastConsumedFrom, command));
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("routes", this.routes)
+                .toString();
+    }
+
+    static final class Route<S> {
+        private final String prefix;
+        private final int lastConsumedFrom;
+        private final CommandModule<S> command;
+
+        private Route(final String prefix, final int lastConsumedFrom, final CommandModule<S> command) {
+            this.prefix = requireNonNull(prefix, "prefix cannot be null");
+            this.lastConsumedFrom = lastConsumedFrom;
+            this.command = requireNonNull(command, "command cannot be null");
+        }
+
+        // The prefix has to be followed by whitespace or the end of the input
+        private boolean matches(final String command) {
+            final int length = this.prefix.length();
+            return command.startsWith(this.prefix)
+                    && (command.length() == length || Character.isWhitespace(command.charAt(length)));
+        }
+
+        CommandModule<S> command() {
+            return this.command;
+        }
+
+        // Creates a tokenizer positioned right after the route
+        CommandInputTokenizer input(final String command) {
+            return CommandInputTokenizer.resume(command, this.lastConsumedFrom, this.prefix.length());
+        }
+
+        @Override
+        public String toString() {
+            return ToStringer.create(this)
+                    .append("prefix", this.prefix)
+                    .append("command", this.command)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package grapefruit.command.dispatcher;
+
+import grapefruit.command.argument.CommandChain;
+import grapefruit.command.util.ToStringer;
+import grapefruit.command.util.key.Key;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * Guards every access to the wrapped context with a read-write lock. Used
+ * when the dispatcher is configured to create thread-safe contexts.
+ */
+final class SynchronizedCommandContext<S> implements CommandContext<S> {
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CommandContextImpl<S> context;
+
+    SynchronizedCommandContext(final CommandContextImpl<S> context) {
+        this.context = requireNonNull(context, "context cannot be null");
+    }
+
+    SynchronizedCommandContext<S> copy() {
+        try {
+            this.lock.readLock().lock();
+            return new SynchronizedCommandContext<>(this.context.copy());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public S source() {
+        return this.context.source();
+    }
+
+    @Override
+    public CommandChain<S> chain() {
+        return this.context.chain();
+    }
+
+    @Override
+    public <T> Optional<T> get(final Key<T> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.get(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> T getOrDefault(final Key<T> key, final T fallback) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.getOrDefault(key, fallback);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> T require(final Key<T> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.require(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getInt(final Key<Integer> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.getInt(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long getLong(final Key<Long> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.getLong(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public double getDouble(final Key<Double> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.getDouble(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> @Nullable T nullable(final Key<T> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.nullable(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean has(final Key<?> key) {
+        try {
+            this.lock.readLock().lock();
+            return this.context.has(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> void store(final Key<T> key, final T value) {
+        try {
+            this.lock.writeLock().lock();
+            this.context.store(key, value);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void storeInt(final Key<Integer> key, final int value) {
+        try {
+            this.lock.writeLock().lock();
+            this.context.storeInt(key, value);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void storeLong(final Key<Long> key, final long value) {
+        try {
+            this.lock.writeLock().lock();
+            this.context.storeLong(key, value);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void storeDouble(final Key<Double> key, final double value) {
+        try {
+            this.lock.writeLock().lock();
+            this.context.storeDouble(key, value);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <T> boolean replace(final Key<T> key, final T value) {
+        try {
+            this.lock.writeLock().lock();
+            return this.context.replace(key, value);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(final Key<?> key) {
+        try {
+            this.lock.writeLock().lock();
+            return this.context.remove(key);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Key<?>, Object> asMap() {
+        try {
+            this.lock.readLock().lock();
+            return this.context.asMap();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("context", this.context)
+                .toString();
+    }
+}
@@ -6,6 +6,8 @@ import grapefruit.command.dispatcher.CommandRegistrationHandler;
 import grapefruit.command.dispatcher.ContextDecorator;
 import grapefruit.command.util.function.ToBooleanFunction;
 
+import java.time.Duration;
+
 public interface DispatcherConfig<S> {
 
     CommandRegistrationHandler<S> registrationHandler();
@@ -16,6 +18,19 @@ public interface DispatcherConfig<S> {
 
     boolean eagerFlagCompletions();
 
+    boolean copyOnWriteRegistrations();
+
+    boolean threadSafeContexts();
+
+    boolean virtualThreadExecution();
+
+    int maxConcurrentExecutions();
+
+    // Zero if parsed commands are not cached
+    int parseCacheSize();
+
+    Duration parseCacheTtl();
+
     static <S> Builder<S> builder() {
         return new DispatcherConfigImpl.Builder<>();
     }
@@ -34,6 +49,30 @@ public interface DispatcherConfig<S> {
 
         Builder<S> eagerFlagCompletions();
 
+        Builder<S> copyOnWriteRegistrations();
+
+        Builder<S> threadSafeContexts();
+
+        Builder<S> virtualThreadExecution();
+
+        /*
+         * Limits the number of asynchronous executions per source. Executions
+         * beyond the limit wait in a queue of their source, without taking up
+         * a thread of the executor, and are submitted to it as the running
+         * executions of the source finish.
+         */
+        Builder<S> maxConcurrentExecutions(final int maxExecutionsPerSource);
+
+        /*
+         * Caches the result of parsing up to maxSize distinct inputs, for
+         * commands whose arguments are all mapped by pure mappers (see
+         * ArgumentMapper#isPure). Dispatching a cached input again skips the
+         * graph lookup and the mapping of its arguments, but its conditions
+         * are still tested. The cache is cleared when commands are registered
+         * or unregistered.
+         */
+        Builder<S> parseCache(final int maxSize, final Duration ttl);
+
         DispatcherConfig<S> build();
     }
 }
@@ -7,6 +7,8 @@ import grapefruit.command.dispatcher.CommandRegistrationHandler;
 import grapefruit.command.dispatcher.ContextDecorator;
 import grapefruit.command.util.function.ToBooleanFunction;
 
+import java.time.Duration;
+
 import static java.util.Objects.requireNonNull;
 
 final class DispatcherConfigImpl<S> implements DispatcherConfig<S> {
@@ -14,17 +16,35 @@ final class DispatcherConfigImpl<S> implements DispatcherConfig<S> {
     private final ContextDecorator<S> contextDecorator;
     private final CompletionFactory completionFactory;
     private final boolean eagerFlagCompletions;
+    private final boolean copyOnWriteRegistrations;
+    private final boolean threadSafeContexts;
+    private final boolean virtualThreadExecution;
+    private final int maxConcurrentExecutions;
+    private final int parseCacheSize;
+    private final Duration parseCacheTtl;
 
     private DispatcherConfigImpl(
             final CommandRegistrationHandler<S> registrationHandler,
             final ContextDecorator<S> contextDecorator,
             final CompletionFactory completionFactory,
-            final boolean eagerFlagCompletions
+            final boolean eagerFlagCompletions,
+            final boolean copyOnWriteRegistrations,
+            final boolean threadSafeContexts,
+            final boolean virtualThreadExecution,
+            final int maxConcurrentExecutions,
+            final int parseCacheSize,
+            final Duration parseCacheTtl
     ) {
         this.registrationHandler = requireNonNull(registrationHandler, "registrationHandler cannot be null");
         this.contextDecorator = requireNonNull(contextDecorator, "contextDecorator cannot be null");
         this.completionFactory = requireNonNull(completionFactory, "completionFactory cannot be null");
         this.eagerFlagCompletions = eagerFlagCompletions;
+        this.copyOnWriteRegistrations = copyOnWriteRegistrations;
+        this.threadSafeContexts = threadSafeContexts;
+        this.virtualThreadExecution = virtualThreadExecution;
+        this.maxConcurrentExecutions = maxConcurrentExecutions;
+        this.parseCacheSize = parseCacheSize;
+        this.parseCacheTtl = requireNonNull(parseCacheTtl, "parseCacheTtl cannot be null");
     }
 
     @Override
@@ -47,6 +67,36 @@ final class DispatcherConfigImpl<S> implements DispatcherConfig<S> {
         return this.eagerFlagCompletions;
     }
 
+    @Override
+    public boolean copyOnWriteRegistrations() {
+        return this.copyOnWriteRegistrations;
+    }
+
+    @Override
+    public boolean threadSafeContexts() {
+        return this.threadSafeContexts;
+    }
+
+    @Override
+    public boolean virtualThreadExecution() {
+        return this.virtualThreadExecution;
+    }
+
+    @Override
+    public int maxConcurrentExecutions() {
+        return this.maxConcurrentExecutions;
+    }
+
+    @Override
+    public int parseCacheSize() {
+        return this.parseCacheSize;
+    }
+
+    @Override
+    public Duration parseCacheTtl() {
+        return this.parseCacheTtl;
+    }
+
     static final class Builder<S> implements DispatcherConfig.Builder<S> {
         private CommandRegistrationHandler<S> registrationHandler;
         private ToBooleanFunction<CommandChain<S>> registrationFn;
@@ -54,6 +104,14 @@ final class DispatcherConfigImpl<S> implements DispatcherConfig<S> {
         private ContextDecorator<S> contextDecorator;
         private CompletionFactory completionFactory;
         private boolean eagerFlagCompletions;
+        private boolean copyOnWriteRegistrations;
+        private boolean threadSafeContexts;
+        private boolean virtualThreadExecution;
+        // No limit by default
+        private int maxConcurrentExecutions = Integer.MAX_VALUE;
+        // No cache by default
+        private int parseCacheSize;
+        private Duration parseCacheTtl = Duration.ZERO;
 
         Builder() {}
 
@@ -93,6 +151,50 @@ final class DispatcherConfigImpl<S> implements DispatcherConfig<S> {
             return this;
         }
 
+        @Override
+        public DispatcherConfig.Builder<S> copyOnWriteRegistrations() {
+            this.copyOnWriteRegistrations = true;
+            return this;
+        }
+
+        @Override
+        public DispatcherConfig.Builder<S> threadSafeContexts() {
+            this.threadSafeContexts = true;
+            return this;
+        }
+
+        @Override
+        public DispatcherConfig.Builder<S> virtualThreadExecution() {
+            this.virtualThreadExecution = true;
+            return this;
+        }
+
+        @Override
+        public DispatcherConfig.Builder<S> maxConcurrentExecutions(final int maxExecutionsPerSource) {
+            if (maxExecutionsPerSource < 1) {
+                throw new IllegalArgumentException("maxExecutionsPerSource must be positive, got %s".formatted(maxExecutionsPerSource));
+            }
+
+            this.maxConcurrentExecutions = maxExecutionsPerSource;
+            return this;
+        }
+
+        @Override
+        public DispatcherConfig.Builder<S> parseCache(final int maxSize, final Duration ttl) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be positive, got %s".formatted(maxSize));
+            }
+
+            requireNonNull(ttl, "ttl cannot be null");
+            if (ttl.isNegative() || ttl.isZero()) {
+                throw new IllegalArgumentException("ttl must be positive, got %s".formatted(ttl));
+            }
+
+            this.parseCacheSize = maxSize;
+            this.parseCacheTtl = ttl;
+            return this;
+        }
+
         @Override
         public DispatcherConfig<S> build() {
             final CommandRegistrationHandler<S> registrationHandler = this.registrationHandler != null
@@ -107,7 +209,18 @@ final class DispatcherConfigImpl<S> implements DispatcherConfig<S> {
                     ? this.completionFactory
                     : CommandCompletion.factory();
 
-            return new DispatcherConfigImpl<>(registrationHandler, contextDecorator, completionFactory, this.eagerFlagCompletions);
+            return new DispatcherConfigImpl<>(
+                    registrationHandler,
+                    contextDecorator,
+                    completionFactory,
+                    this.eagerFlagCompletions,
+                    this.copyOnWriteRegistrations,
+                    this.threadSafeContexts,
+                    this.virtualThreadExecution,
+                    this.maxConcurrentExecutions,
+                    this.parseCacheSize,
+                    this.parseCacheTtl
+            );
         }
     }
 }
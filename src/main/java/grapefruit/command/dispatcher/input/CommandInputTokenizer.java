@@ -1,7 +1,6 @@
 package grapefruit.command.dispatcher.input;
 
 import grapefruit.command.argument.CommandArgumentException;
-import grapefruit.command.util.function.Function3;
 
 import java.util.Optional;
 
@@ -29,6 +28,24 @@ public interface CommandInputTokenizer {
 
     String readRemaining() throws MissingInputException;
 
+    /*
+     * The methods below read the next word as a number, directly from the
+     * input. They return false if the word is not a valid number or falls
+     * outside the [min, max] range, and store the result otherwise, which
+     * can then be retrieved with lastLong or lastDouble respectively. The
+     * word is consumed in both cases. Integers are read with tryReadLong,
+     * narrowed by the bounds.
+     */
+    boolean tryReadLong(final long min, final long max) throws MissingInputException;
+
+    boolean tryReadFloat(final float min, final float max) throws MissingInputException;
+
+    boolean tryReadDouble(final double min, final double max) throws MissingInputException;
+
+    long lastLong();
+
+    double lastDouble();
+
     String consumed();
 
     Optional<String> lastConsumed();
@@ -41,8 +58,17 @@ public interface CommandInputTokenizer {
         return new CommandInputTokenizerImpl(input);
     }
 
+    /*
+     * Creates a tokenizer positioned at the cursor, as if it had already
+     * read the input up to that point, the last read part being the input
+     * between lastConsumedFrom and the cursor.
+     */
+    static CommandInputTokenizer resume(final String input, final int lastConsumedFrom, final int cursor) {
+        return new CommandInputTokenizerImpl(input, lastConsumedFrom, cursor);
+    }
+
     interface Internal {
 
-        <X extends CommandArgumentException> X gen(final String argument, final Function3<String, String, String, X> provider);
+        <X extends CommandArgumentException> X gen(final String argument, final CommandArgumentException.Factory<X> factory);
     }
 }
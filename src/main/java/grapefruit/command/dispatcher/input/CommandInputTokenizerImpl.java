@@ -1,13 +1,10 @@
 package grapefruit.command.dispatcher.input;
 
 import grapefruit.command.argument.CommandArgumentException;
-import grapefruit.command.util.Range;
 import grapefruit.command.util.function.CharPredicate;
-import grapefruit.command.util.function.Function3;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
@@ -15,14 +12,46 @@ import static java.util.Objects.requireNonNull;
 final class CommandInputTokenizerImpl implements CommandInputTokenizer {
     private static final char SINGLE_QUOTE = '\'';
     private static final char DOUBLE_QUOTE = '"';
-    private final Deque<Range> consumed = new ArrayDeque<>();
-    private final Internal internal;
+    private static final CharPredicate WHITESPACE = Character::isWhitespace;
+    private static final CharPredicate NON_WHITESPACE = x -> !Character.isWhitespace(x);
+    private static final int INITIAL_CAPACITY = 16;
+    // Decimal numbers with at most this many significant digits are accumulated exactly
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    // Exponent digits beyond this value no longer change the outcome of the parse
+    private static final int MAX_EXPONENT = 100_000;
+    // Powers of ten that are exactly representable as a double or a float respectively
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
     private final String input;
     private int cursor;
+    /*
+     * Consumed ranges are stored as consecutive [from, to] pairs, so the
+     * range at index i occupies consumed[2 * i] and consumed[2 * i + 1].
+     */
+    private int[] consumed = new int[INITIAL_CAPACITY];
+    private int consumedLength;
+    private @Nullable Internal internal;
+    // Results of the last successful number read
+    private long lastLong;
+    private double lastDouble;
 
     public CommandInputTokenizerImpl(final String input) {
         this.input = requireNonNull(input, "input cannot be null");
-        this.internal = new Internal(this);
+    }
+
+    CommandInputTokenizerImpl(final String input, final int lastConsumedFrom, final int cursor) {
+        this(input);
+        if (lastConsumedFrom < 0 || lastConsumedFrom > cursor || cursor > input.length()) {
+            throw new IndexOutOfBoundsException("Invalid range [%d, %d] for input of length %d".formatted(lastConsumedFrom, cursor, input.length()));
+        }
+
+        this.cursor = cursor;
+        if (lastConsumedFrom < cursor) pushRange(lastConsumedFrom, cursor);
     }
 
     @Override
@@ -47,8 +76,7 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
 
     @Override
     public boolean canReadNonWhitespace() {
-        if (!canRead()) return false;
-        return this.input.substring(this.cursor).chars().anyMatch(x -> !Character.isWhitespace(x));
+        return scan(this.cursor, WHITESPACE) < this.input.length();
     }
 
     @Override
@@ -57,7 +85,7 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
 
         int from = this.cursor;
         this.cursor = from + 1;
-        this.consumed.addLast(Range.range(from, this.cursor));
+        pushRange(from, this.cursor);
         return this.input.charAt(from);
     }
 
@@ -71,20 +99,15 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
 
     @Override
     public String peekWord() {
-        final int start = this.cursor;
-        try {
-            return readWord();
-        } catch (final MissingInputException ex) {
-            return "";
-        } finally {
-            this.cursor = start;
-        }
+        // Scan ahead without moving the cursor or recording a consumed range
+        final int from = scan(this.cursor, WHITESPACE);
+        return this.input.substring(from, scan(from, NON_WHITESPACE));
     }
 
     @Override
     public String readWord() throws MissingInputException {
         skipWhitespace();
-        return readWhile(x -> !Character.isWhitespace(x));
+        return readWhile(NON_WHITESPACE);
     }
 
     @Override
@@ -93,15 +116,15 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
         final char start = peek();
         // This means we're dealing with a quoted string
         if (start == SINGLE_QUOTE || start == DOUBLE_QUOTE) {
-            return performRead(() -> {
-                read(); // Get rid of leading quotation
-                // Require the argument to be surrounded by the same kind of
-                // quotation marks.
-                final String result = readWhile(x -> x != start);
-                read(); // Get rid of trailing quotation
-
-                return result;
-            });
+            final int from = this.cursor;
+            read(); // Get rid of leading quotation
+            // Require the argument to be surrounded by the same kind of
+            // quotation marks.
+            final String result = readUntil(start);
+            read(); // Get rid of trailing quotation
+
+            pushRange(from, this.cursor);
+            return result;
         }
 
         return readWord();
@@ -110,15 +133,159 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
     @Override
     public String readRemaining() throws MissingInputException {
         skipWhitespace();
-        return performRead(() -> {
-            final String result = remaining();
-            this.cursor = this.input.length();
-            if (result.isEmpty()) {
-                throw new MissingInputException();
+        final int from = this.cursor;
+        this.cursor = this.input.length();
+        if (from == this.cursor) {
+            throw new MissingInputException();
+        }
+
+        pushRange(from, this.cursor);
+        return this.input.substring(from);
+    }
+
+    @Override
+    public boolean tryReadLong(final long min, final long max) throws MissingInputException {
+        final int from = skipWord();
+        final String input = this.input;
+        final int to = this.cursor;
+        int i = from;
+        final char first = input.charAt(i);
+        final boolean negative = first == '-';
+        if (negative || first == '+') i++;
+        if (i == to) return false;
+
+        // Accumulate negatively, since the range of negative values is the larger one
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        for (; i < to; i++) {
+            final int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) return false;
+
+            result *= 10;
+            if (result < limit + digit) return false;
+            result -= digit;
+        }
+
+        final long value = negative ? result : -result;
+        if (value < min || value > max) return false;
+
+        this.lastLong = value;
+        return true;
+    }
+
+    @Override
+    public boolean tryReadFloat(final float min, final float max) throws MissingInputException {
+        return tryReadDecimal(min, max, true);
+    }
+
+    @Override
+    public boolean tryReadDouble(final double min, final double max) throws MissingInputException {
+        return tryReadDecimal(min, max, false);
+    }
+
+    @Override
+    public long lastLong() {
+        return this.lastLong;
+    }
+
+    @Override
+    public double lastDouble() {
+        return this.lastDouble;
+    }
+
+    /*
+     * Accepts an optional sign, followed by digits with an optional decimal
+     * point and an optional exponent. Numbers that can be computed exactly
+     * from their significant digits and a small power of ten take the fast
+     * path; the rest are already known to be valid, so they are handed to
+     * the JDK parser, which doesn't throw on them.
+     */
+    private boolean tryReadDecimal(final double min, final double max, final boolean single) throws MissingInputException {
+        final int from = skipWord();
+        final String input = this.input;
+        final int to = this.cursor;
+        int i = from;
+        final char first = input.charAt(i);
+        final boolean negative = first == '-';
+        if (negative || first == '+') i++;
+
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        // Whether any nonzero digit had to be dropped from the mantissa
+        boolean truncated = false;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; i < to; i++) {
+            final char c = input.charAt(i);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
             }
 
-            return result;
-        });
+            final int digit = c - '0';
+            if (digit < 0 || digit > 9) break;
+
+            anyDigit = true;
+            if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                // Leading zeros are not significant
+                if (mantissa != 0 || digit != 0) {
+                    mantissa = mantissa * 10 + digit;
+                    mantissaDigits++;
+                }
+                if (fraction) exponent--;
+            } else {
+                truncated |= digit != 0;
+                if (!fraction) exponent++;
+            }
+        }
+
+        if (!anyDigit) return false;
+
+        if (i < to && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            i++;
+            final boolean negativeExponent = i < to && input.charAt(i) == '-';
+            if (i < to && (negativeExponent || input.charAt(i) == '+')) i++;
+            if (i == to) return false;
+
+            int explicitExponent = 0;
+            for (; i < to; i++) {
+                final int digit = input.charAt(i) - '0';
+                if (digit < 0 || digit > 9) return false;
+                if (explicitExponent < MAX_EXPONENT) explicitExponent = explicitExponent * 10 + digit;
+            }
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (i != to) return false;
+
+        final double value;
+        if (single) {
+            if (!truncated && mantissa < (1L << 24) && Math.abs(exponent) < FLOAT_POWERS_OF_TEN.length) {
+                final float result = exponent < 0
+                        ? mantissa / FLOAT_POWERS_OF_TEN[-exponent]
+                        : mantissa * FLOAT_POWERS_OF_TEN[exponent];
+                value = negative ? -result : result;
+            } else {
+                value = Float.parseFloat(input.substring(from, to));
+            }
+        } else {
+            if (!truncated && mantissa < (1L << 53) && Math.abs(exponent) < DOUBLE_POWERS_OF_TEN.length) {
+                final double result = exponent < 0
+                        ? mantissa / DOUBLE_POWERS_OF_TEN[-exponent]
+                        : mantissa * DOUBLE_POWERS_OF_TEN[exponent];
+                value = negative ? -result : result;
+            } else {
+                value = Double.parseDouble(input.substring(from, to));
+            }
+        }
+
+        if (value < min || value > max) return false;
+
+        this.lastDouble = value;
+        return true;
     }
 
     @Override
@@ -133,14 +300,16 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
 
     @Override
     public Optional<String> lastConsumed() {
-        final @Nullable Range range = this.consumed.peekLast();
-        return range == null
+        final int length = this.consumedLength;
+        return length == 0
                 ? Optional.empty()
-                : Optional.of(this.input.substring(range.from(), range.to()));
+                : Optional.of(this.input.substring(this.consumed[length - 2], this.consumed[length - 1]));
     }
 
     @Override
     public CommandInputTokenizer.Internal internal() {
+        // Only needed on error paths, so create it lazily
+        if (this.internal == null) this.internal = new Internal(this);
         return this.internal;
     }
 
@@ -148,34 +317,54 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
         if (!canRead()) throw new MissingInputException();
     }
 
-    private String readWhile(final CharPredicate condition) throws MissingInputException {
+    // Returns the index of the first character at or after 'from' that does not match the condition
+    private int scan(final int from, final CharPredicate condition) {
+        final String input = this.input;
+        final int length = input.length();
+        int i = from;
+        while (i < length && condition.test(input.charAt(i))) i++;
+        return i;
+    }
+
+    private int skipWhile(final CharPredicate condition) throws MissingInputException {
         requireCanRead();
-        return performRead(() -> {
-            final StringBuilder builder = new StringBuilder();
-            while (canRead() && condition.test(peek())) {
-                builder.append(read());
-            }
+        final int from = this.cursor;
+        this.cursor = scan(from, condition);
+        pushRange(from, this.cursor);
+        return from;
+    }
 
-            return builder.toString();
-        });
+    private String readWhile(final CharPredicate condition) throws MissingInputException {
+        final int from = skipWhile(condition);
+        return this.input.substring(from, this.cursor);
+    }
+
+    private String readUntil(final char c) throws MissingInputException {
+        requireCanRead();
+        final int from = this.cursor;
+        final int to = this.input.indexOf(c, from);
+        this.cursor = to == -1 ? this.input.length() : to;
+        pushRange(from, this.cursor);
+        return this.input.substring(from, this.cursor);
     }
 
     private void skipWhitespace() throws MissingInputException {
-        readWhile(Character::isWhitespace);
+        skipWhile(WHITESPACE);
     }
 
-    private String performRead(final Read read) throws MissingInputException {
-        final int from = this.cursor;
-        final String result = read.perform();
-        final int to = this.cursor;
-        this.consumed.addLast(Range.range(from, to));
-        return result;
+    // Consumes the next word like readWord does, but returns its start index instead of creating a string
+    private int skipWord() throws MissingInputException {
+        skipWhitespace();
+        return skipWhile(NON_WHITESPACE);
     }
 
-    @FunctionalInterface
-    interface Read {
+    private void pushRange(final int from, final int to) {
+        if (this.consumedLength == this.consumed.length) {
+            this.consumed = Arrays.copyOf(this.consumed, this.consumedLength << 1);
+        }
 
-        String perform() throws MissingInputException;
+        this.consumed[this.consumedLength++] = from;
+        this.consumed[this.consumedLength++] = to;
     }
 
     private static final class Internal implements CommandInputTokenizer.Internal {
@@ -186,11 +375,12 @@ final class CommandInputTokenizerImpl implements CommandInputTokenizer {
         }
 
         @Override
-        public <X extends CommandArgumentException> X gen(final String argument, final Function3<String, String, String, X> provider) {
-            return provider.apply(
-                    this.impl.consumed(), // Consumed input
-                    argument, // The argument that caused this exception
-                    this.impl.remaining() // The remaining input
+        public <X extends CommandArgumentException> X gen(final String argument, final CommandArgumentException.Factory<X> factory) {
+            // The consumed and remaining parts are derived from the cursor on demand
+            return factory.create(
+                    this.impl.input,
+                    this.impl.cursor,
+                    argument // The argument that caused this exception
             );
         }
     }
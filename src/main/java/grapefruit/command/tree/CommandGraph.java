@@ -14,13 +14,30 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static grapefruit.command.util.StringUtil.startsWithIgnoreCase;
 import static java.util.Objects.requireNonNull;
 
 public class CommandGraph<S> {
-    private final InternalCommandNode<S> rootNode = InternalCommandNode.of("__ROOT__", Set.of(), null);
+    private final InternalCommandNode<S> rootNode;
+
+    public CommandGraph() {
+        this(InternalCommandNode.of("__ROOT__", Set.of(), null));
+    }
+
+    private CommandGraph(final InternalCommandNode<S> rootNode) {
+        this.rootNode = requireNonNull(rootNode, "rootNode cannot be null");
+    }
+
+    /*
+     * Creates an immutable copy of this graph. The copy is not affected by
+     * subsequent modifications of this graph, thus it can be queried from
+     * multiple threads without any synchronization.
+     */
+    public CommandGraph<S> snapshot() {
+        return new CommandGraph<>(InternalCommandNode.freeze(this.rootNode));
+    }
 
     public void insert(final CommandChain<S> chain, final CommandModule<S> command) {
         requireNonNull(chain, "chain cannot be null");
@@ -95,27 +112,52 @@ public class CommandGraph<S> {
     }
 
     public CommandModule<S> query(final CommandInputTokenizer input) throws CommandException {
+        final Tuple2<CommandModule<S>, NoSuchCommandException> result = lookup(input);
+        final Optional<NoSuchCommandException> failure = result.right();
+        if (failure.isPresent()) throw failure.orElseThrow();
+
+        return result.left().orElseThrow();
+    }
+
+    /*
+     * Same as query, but the failure is returned as the right value of
+     * the tuple instead of being thrown. Exactly one of the values is
+     * present.
+     */
+    public Tuple2<CommandModule<S>, NoSuchCommandException> lookup(final CommandInputTokenizer input) {
         requireNonNull(input, "input cannot be null");
-        final InternalCommandNode<S> node = query0(input);
-        final Optional<CommandModule<S>> command = node.command();
-        if (command.isPresent()) return command.orElseThrow();
+        final Tuple2<InternalCommandNode<S>, NoSuchCommandException> result = lookup0(input);
+        final Optional<NoSuchCommandException> failure = result.right();
+        if (failure.isPresent()) return new Tuple2<>(null, failure.orElseThrow());
 
-        throw generateNoSuchCommand(node, input, "");
+        final InternalCommandNode<S> node = result.left().orElseThrow();
+        final Optional<CommandModule<S>> command = node.command();
+        return command.isPresent()
+                ? new Tuple2<>(command.orElseThrow(), null)
+                : new Tuple2<>(null, generateNoSuchCommand(node, input, ""));
     }
 
     public InternalCommandNode<S> query0(final CommandInputTokenizer input) throws NoSuchCommandException {
+        final Tuple2<InternalCommandNode<S>, NoSuchCommandException> result = lookup0(input);
+        final Optional<NoSuchCommandException> failure = result.right();
+        if (failure.isPresent()) throw failure.orElseThrow();
+
+        return result.left().orElseThrow();
+    }
+
+    private Tuple2<InternalCommandNode<S>, NoSuchCommandException> lookup0(final CommandInputTokenizer input) {
         InternalCommandNode<S> node = this.rootNode;
         try {
             while (input.canReadNonWhitespace()) {
                 final String name = input.readWord();
                 final Optional<InternalCommandNode<S>> childCandidate = node.queryChild(name);
-                if (childCandidate.isEmpty()) throw generateNoSuchCommand(node, input, name);
+                if (childCandidate.isEmpty()) return new Tuple2<>(null, generateNoSuchCommand(node, input, name));
 
                 node = childCandidate.orElseThrow();
                 if (node.isLeaf()) {
                     final Optional<CommandModule<S>> commandCandidate = node.command();
                     if (commandCandidate.isPresent()) {
-                        return node;
+                        return new Tuple2<>(node, null);
                     }
 
                     /*
@@ -129,76 +171,73 @@ public class CommandGraph<S> {
                 }
             }
         } catch (final MissingInputException ex) {
-            throw generateNoSuchCommand(node, input, "");
+            // Unreachable, since a word is only read if there is one
+            return new Tuple2<>(null, generateNoSuchCommand(node, input, ""));
         }
 
-        return node;
+        return new Tuple2<>(node, null);
     }
 
     public Tuple2<List<String>, CommandModule<S>> complete(final CommandInputTokenizer input) {
         requireNonNull(input, "input cannot be null");
 
+        InternalCommandNode<S> node = this.rootNode;
+        String name = "";
         try {
-            if (!input.canReadNonWhitespace()) {
-                // The input is empty, complete the direct children of the root node
-                return new Tuple2<>(completeChildren(this.rootNode), null);
+            while (input.canReadNonWhitespace()) {
+                name = input.readWord();
+                final Optional<InternalCommandNode<S>> childCandidate = node.queryChild(name);
+                if (childCandidate.isEmpty()) {
+                    /*
+                     * If we have more input to read, that means that the invalid
+                     * node name is not the last argument. Return an empty list in
+                     * such cases. Otherwise, complete the children of the current
+                     * node that start with the invalid name.
+                     */
+                    final List<String> completions = input.canRead()
+                            ? List.of()
+                            : node.completeChildren(name);
 
+                    return new Tuple2<>(completions, null);
+                }
+
+                node = childCandidate.orElseThrow();
+                if (node.isLeaf()) break;
             }
+        } catch (final MissingInputException ex) {
+            // canReadNonWhitespace guarantees that there is a word to read
+            throw new IllegalStateException(ex);
+        }
 
-            final InternalCommandNode<S> node = query0(input);
-            final Optional<CommandModule<S>> command = node.command();
+        // The input is empty, complete the direct children of the root node
+        if (node == this.rootNode) return new Tuple2<>(node.completeChildren(""), null);
 
-            if (command.isPresent() && input.canRead()) {
-                /*
-                 * We have found a command. If we there are more arguments in the queue, we
-                 * want to return this command (thus passing all subsequent arguments for
-                 * completion to it rather than handling them here).
-                 */
-                return new Tuple2<>(null, command.orElseThrow());
-            }
+        final Optional<CommandModule<S>> command = node.command();
+        if (command.isPresent() && input.canRead()) {
             /*
-             * If `canRead()` returns true at this stage, it means that all
-             * command names have been valid so far and the input ends with
-             * a whitespace. In this case, we want to complete child nodes
-             * with an empty input string. Otherwise, complete the current
-             * node with the current input.
+             * We have found a command. If we there are more arguments in the queue, we
+             * want to return this command (thus passing all subsequent arguments for
+             * completion to it rather than handling them here).
              */
-            final List<String> completions = input.canRead()
-                    ? completeChildren(node)
-                    : completeNode(node);
-
-            return new Tuple2<>(completions, null);
-        } catch (final NoSuchCommandException ex) {
-            final List<String> completions;
-            if (input.canRead()) {
-                /*
-                 * If we have more input to read, that means that the invalid
-                 * node name is not the last argument. Return an empty list in
-                 * such cases.
-                 */
-                completions = List.of();
-            } else {
-                // Otherwise, we collect completions for the current node
-                completions = ex.alternatives().stream()
-                        .flatMap(CommandGraph::collectAliases)
-                        .toList();
-            }
-
-            return new Tuple2<>(completions, null);
+            return new Tuple2<>(null, command.orElseThrow());
         }
+        /*
+         * If `canRead()` returns true at this stage, it means that all
+         * command names have been valid so far and the input ends with
+         * a whitespace. In this case, we want to complete child nodes
+         * with an empty input string. Otherwise, complete the current
+         * node with the current input.
+         */
+        final List<String> completions = input.canRead()
+                ? node.completeChildren("")
+                : completeNode(node, name);
+
+        return new Tuple2<>(completions, null);
     }
 
-    private static Stream<String> collectAliases(final CommandNode node) {
-        return Stream.concat(Stream.of(node.name()), node.aliases().stream());
-    }
-
-    private static List<String> completeNode(final CommandNode node) {
-        return collectAliases(node).toList();
-    }
-
-    private static <S> List<String> completeChildren(final InternalCommandNode<S> node) {
-        return node.children().stream()
-                .flatMap(CommandGraph::collectAliases)
+    private static List<String> completeNode(final CommandNode node, final String prefix) {
+        return Stream.concat(Stream.of(node.name()), node.aliases().stream())
+                .filter(x -> startsWithIgnoreCase(x, prefix))
                 .toList();
     }
 
@@ -215,13 +254,10 @@ public class CommandGraph<S> {
     }
 
     private static <S> NoSuchCommandException generateNoSuchCommand(final InternalCommandNode<S> node, final CommandInputTokenizer input, final String argument) {
-        final Set<CommandNode> alternatives = node.children().stream()
-                .map(InternalCommandNode::asImmutable)
-                .collect(Collectors.toSet());
-
+        // The alternatives are only created from the children of the node if they are requested
         return input.internal().gen(
                 argument,
-                (consumed, arg, remaining) -> new NoSuchCommandException(consumed, arg, remaining, alternatives)
+                (in, cursor, arg) -> new NoSuchCommandException(in, cursor, arg, node)
         );
     }
 }
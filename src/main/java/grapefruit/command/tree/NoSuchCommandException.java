@@ -2,23 +2,54 @@ package grapefruit.command.tree;
 
 import grapefruit.command.argument.CommandArgumentException;
 import grapefruit.command.tree.node.CommandNode;
+import grapefruit.command.tree.node.InternalCommandNode;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.Serial;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static java.util.Objects.requireNonNull;
 
 public class NoSuchCommandException extends CommandArgumentException {
     @Serial
     private static final long serialVersionUID = 8554442705689440988L;
-    private final Set<CommandNode> alternatives;
+    /*
+     * The node whose children the alternatives are created from, on the first
+     * call to alternatives(). Children of mutable nodes are read at that
+     * point, so later changes to the graph don't affect the alternatives.
+     */
+    private transient @Nullable InternalCommandNode<?> node;
+    private volatile @Nullable Set<CommandNode> alternatives;
 
     public NoSuchCommandException(final String consumed, final String argument, final String remaining, final Set<CommandNode> alternatives) {
         super(consumed, argument, remaining);
-        this.alternatives = requireNonNull(alternatives, "alternatives cannot be null");
+        this.alternatives = Set.copyOf(requireNonNull(alternatives, "alternatives cannot be null"));
+    }
+
+    NoSuchCommandException(final String input, final int cursor, final String argument, final InternalCommandNode<?> node) {
+        super(input, cursor, argument);
+        this.node = requireNonNull(node, "node cannot be null");
     }
 
     public Set<CommandNode> alternatives() {
-        return Set.copyOf(this.alternatives);
+        Set<CommandNode> alternatives = this.alternatives;
+        if (alternatives != null) return alternatives;
+
+        // Synchronized, so that no caller observes the node after another one has released it
+        synchronized (this) {
+            alternatives = this.alternatives;
+            if (alternatives != null) return alternatives;
+
+            final @Nullable InternalCommandNode<?> node = this.node;
+            // The node is transient, so it may be lost to serialization
+            alternatives = node == null
+                    ? Set.of()
+                    : node.children().stream().map(InternalCommandNode::asImmutable).collect(Collectors.toUnmodifiableSet());
+            this.alternatives = alternatives;
+            this.node = null;
+        }
+
+        return alternatives;
     }
 }
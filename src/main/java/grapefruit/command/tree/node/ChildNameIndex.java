@@ -0,0 +1,82 @@
+package grapefruit.command.tree.node;
+
+import grapefruit.command.util.ToStringer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static grapefruit.command.util.StringUtil.foldCase;
+
+/*
+ * The names and aliases of a set of child nodes, sorted by their case-folded
+ * form. Names sharing a prefix are adjacent, so the names starting with a
+ * given prefix can be found with a binary search.
+ */
+final class ChildNameIndex {
+    static final ChildNameIndex EMPTY = new ChildNameIndex(new String[0], new String[0]);
+    private final String[] folded;
+    // The original spelling of each name, indexed the same way as this.folded
+    private final String[] names;
+
+    private ChildNameIndex(final String[] folded, final String[] names) {
+        this.folded = folded;
+        this.names = names;
+    }
+
+    static ChildNameIndex of(final Collection<? extends CommandNode> children) {
+        if (children.isEmpty()) return EMPTY;
+
+        final List<String[]> entries = new ArrayList<>();
+        for (final CommandNode child : children) {
+            entries.add(new String[] { foldCase(child.name()), child.name() });
+            for (final String alias : child.aliases()) entries.add(new String[] { foldCase(alias), alias });
+        }
+
+        entries.sort(Comparator.comparing(x -> x[0]));
+        final String[] folded = new String[entries.size()];
+        final String[] names = new String[entries.size()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = entries.get(i)[0];
+            names[i] = entries.get(i)[1];
+        }
+
+        return new ChildNameIndex(folded, names);
+    }
+
+    List<String> complete(final String prefix) {
+        final String foldedPrefix = foldCase(prefix);
+        final int from = lowerBound(foldedPrefix);
+        int to = from;
+        while (to < this.folded.length && this.folded[to].startsWith(foldedPrefix)) to++;
+
+        // The arrays are never modified, so a view is safe to hand out
+        return Collections.unmodifiableList(Arrays.asList(this.names).subList(from, to));
+    }
+
+    // Returns the index of the first name that is not less than the key
+    private int lowerBound(final String key) {
+        int low = 0;
+        int high = this.folded.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (this.folded[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("names", Arrays.toString(this.names))
+                .toString();
+    }
+}
@@ -0,0 +1,142 @@
+package grapefruit.command.tree.node;
+
+import grapefruit.command.CommandModule;
+import grapefruit.command.util.ToStringer;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static grapefruit.command.util.StringUtil.containsIgnoreCase;
+import static grapefruit.command.util.StringUtil.foldCase;
+import static java.util.Objects.requireNonNull;
+
+final class FrozenCommandNode<S> implements InternalCommandNode<S> {
+    private final String name;
+    private final Set<String> aliases;
+    private final Set<InternalCommandNode<S>> children;
+    private final Map<String, InternalCommandNode<S>> childIndex;
+    private final ChildNameIndex completionIndex;
+    private final @Nullable InternalCommandNode<S> parent;
+    private final @Nullable CommandModule<S> command;
+
+    FrozenCommandNode(final InternalCommandNode<S> source, final @Nullable InternalCommandNode<S> parent) {
+        requireNonNull(source, "source cannot be null");
+        this.name = source.name();
+        this.aliases = source.aliases();
+        this.parent = parent;
+        this.command = source.command().orElse(null);
+
+        // Copy the subtree of the source node
+        final Map<InternalCommandNode<S>, InternalCommandNode<S>> copies = new IdentityHashMap<>();
+        for (final InternalCommandNode<S> child : source.children()) copies.put(child, new FrozenCommandNode<>(child, this));
+
+        // Index every name the same way the source node resolves it
+        final Map<String, InternalCommandNode<S>> childIndex = new HashMap<>();
+        for (final InternalCommandNode<S> child : copies.keySet()) {
+            index(childIndex, child.name(), source, copies);
+            for (final String alias : child.aliases()) index(childIndex, alias, source, copies);
+        }
+
+        this.children = Set.copyOf(copies.values());
+        this.childIndex = Map.copyOf(childIndex);
+        this.completionIndex = ChildNameIndex.of(this.children);
+    }
+
+    private static <S> void index(
+            final Map<String, InternalCommandNode<S>> childIndex,
+            final String name,
+            final InternalCommandNode<S> source,
+            final Map<InternalCommandNode<S>, InternalCommandNode<S>> copies
+    ) {
+        source.queryChild(name).map(copies::get).ifPresent(x -> childIndex.putIfAbsent(foldCase(name), x));
+    }
+
+    @Override
+    public String name() {
+        return this.name;
+    }
+
+    @Override
+    public Set<String> aliases() {
+        return this.aliases;
+    }
+
+    @Override
+    public void mergeAliases(final Set<String> aliases) {
+        throw immutable();
+    }
+
+    @Override
+    public boolean matches(final String query) {
+        return this.name.equalsIgnoreCase(query) || containsIgnoreCase(query, this.aliases);
+    }
+
+    @Override
+    public void addChild(final InternalCommandNode<S> child) {
+        throw immutable();
+    }
+
+    @Override
+    public void removeChild(final InternalCommandNode<S> child) {
+        throw immutable();
+    }
+
+    @Override
+    public Optional<InternalCommandNode<S>> queryChild(final String query) {
+        return Optional.ofNullable(this.childIndex.get(foldCase(query)));
+    }
+
+    @Override
+    public List<String> completeChildren(final String prefix) {
+        requireNonNull(prefix, "prefix cannot be null");
+        return this.completionIndex.complete(prefix);
+    }
+
+    @Override
+    public Set<InternalCommandNode<S>> children() {
+        return this.children;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return this.children.isEmpty();
+    }
+
+    @Override
+    public Optional<InternalCommandNode<S>> parent() {
+        return Optional.ofNullable(this.parent);
+    }
+
+    @Override
+    public Optional<CommandModule<S>> command() {
+        return Optional.ofNullable(this.command);
+    }
+
+    @Override
+    public void command(final CommandModule<S> command) {
+        throw immutable();
+    }
+
+    @Override
+    public CommandNode asImmutable() {
+        return new CommandNodeImpl(this.name, this.aliases);
+    }
+
+    private UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("Command node '%s' is immutable".formatted(this));
+    }
+
+    @Override
+    public String toString() {
+        return ToStringer.create(this)
+                .append("name", this.name)
+                .append("aliases", this.aliases)
+                .append("command", this.command)
+                .toString();
+    }
+}
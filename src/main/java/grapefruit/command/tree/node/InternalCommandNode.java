@@ -3,6 +3,7 @@ package grapefruit.command.tree.node;
 import grapefruit.command.CommandModule;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -18,6 +19,9 @@ public interface InternalCommandNode<S> extends CommandNode {
 
     Optional<InternalCommandNode<S>> queryChild(final String query);
 
+    // Returns the names and aliases of child nodes starting with the prefix, ignoring case
+    List<String> completeChildren(final String prefix);
+
     Set<InternalCommandNode<S>> children();
 
     boolean isLeaf();
@@ -33,4 +37,8 @@ public interface InternalCommandNode<S> extends CommandNode {
     static <S> InternalCommandNode<S> of(final String name, final Set<String> aliases, final @Nullable InternalCommandNode<S> parent) {
         return new InternalCommandNodeImpl<>(name, aliases, parent);
     }
+
+    static <S> InternalCommandNode<S> freeze(final InternalCommandNode<S> node) {
+        return new FrozenCommandNode<>(node, null);
+    }
 }
@@ -5,18 +5,28 @@ import grapefruit.command.util.ToStringer;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.ref.WeakReference;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
 import static grapefruit.command.util.StringUtil.containsIgnoreCase;
+import static grapefruit.command.util.StringUtil.foldCase;
 import static java.util.Objects.requireNonNull;
 
 final class InternalCommandNodeImpl<S> implements InternalCommandNode<S> {
     private final String name;
     private final Set<String> aliases;
     private final Set<InternalCommandNode<S>> children;
+    // Children mapped to their case-folded names and aliases
+    private final Map<String, InternalCommandNode<S>> childIndex;
+    // Whether two children have ever shared a name or an alias
+    private boolean shadowed;
+    // Built on the first completion request, and discarded whenever the children change
+    private @Nullable ChildNameIndex completionIndex;
     private final WeakReference<InternalCommandNode<S>> parent;
     private @Nullable CommandModule<S> command;
 
@@ -25,6 +35,7 @@ final class InternalCommandNodeImpl<S> implements InternalCommandNode<S> {
         // Create a mutable copy of aliases
         this.aliases = new HashSet<>(requireNonNull(aliases, "aliases cannot be null"));
         this.children = new HashSet<>();
+        this.childIndex = new HashMap<>();
         this.parent = new WeakReference<>(parent);
     }
 
@@ -40,7 +51,15 @@ final class InternalCommandNodeImpl<S> implements InternalCommandNode<S> {
 
     @Override
     public void mergeAliases(final Set<String> aliases) {
+        /*
+         * Aliases are part of both the hash code of this node and the
+         * child index of the parent node, so detach this node from its
+         * parent while the aliases are being modified.
+         */
+        final Optional<InternalCommandNode<S>> parent = parent();
+        parent.ifPresent(x -> x.removeChild(this));
         this.aliases.addAll(aliases);
+        parent.ifPresent(x -> x.addChild(this));
     }
 
     @Override
@@ -51,16 +70,37 @@ final class InternalCommandNodeImpl<S> implements InternalCommandNode<S> {
     @Override
     public void addChild(final InternalCommandNode<S> child) {
         this.children.add(child);
+        this.completionIndex = null;
+        index(child);
     }
 
     @Override
     public void removeChild(final InternalCommandNode<S> child) {
-        this.children.remove(child);
+        if (!this.children.remove(child)) return;
+        this.completionIndex = null;
+
+        this.childIndex.remove(foldCase(child.name()), child);
+        for (final String alias : child.aliases()) this.childIndex.remove(foldCase(alias), child);
+
+        // Hand the names of the removed child over to siblings that share them
+        if (this.shadowed) this.children.forEach(this::index);
     }
 
     @Override
     public Optional<InternalCommandNode<S>> queryChild(final String query) {
-        return this.children.stream().filter(c -> c.matches(query)).findFirst();
+        return Optional.ofNullable(this.childIndex.get(foldCase(query)));
+    }
+
+    @Override
+    public List<String> completeChildren(final String prefix) {
+        requireNonNull(prefix, "prefix cannot be null");
+        ChildNameIndex index = this.completionIndex;
+        if (index == null) {
+            index = ChildNameIndex.of(this.children);
+            this.completionIndex = index;
+        }
+
+        return index.complete(prefix);
     }
 
     @Override
@@ -93,6 +133,17 @@ final class InternalCommandNodeImpl<S> implements InternalCommandNode<S> {
         return new CommandNodeImpl(this.name, Set.copyOf(this.aliases));
     }
 
+    private void index(final InternalCommandNode<S> child) {
+        // If multiple children share a name or an alias, the first one wins
+        indexName(child.name(), child);
+        for (final String alias : child.aliases()) indexName(alias, child);
+    }
+
+    private void indexName(final String name, final InternalCommandNode<S> child) {
+        final InternalCommandNode<S> existing = this.childIndex.putIfAbsent(foldCase(name), child);
+        if (existing != null && existing != child) this.shadowed = true;
+    }
+
     @Override
     public String toString() {
         return ToStringer.create(this)
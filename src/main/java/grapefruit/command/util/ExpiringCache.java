@@ -0,0 +1,119 @@
+package grapefruit.command.util;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/*
+ * A thread-safe cache that holds at most maxSize entries, evicting the least
+ * recently used one when full. Entries expire ttl after they were stored.
+ */
+public final class ExpiringCache<K, V> {
+    private final Map<K, Entry<V>> entries;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    // Guarded by 'this', same as this.entries
+    private long hits;
+    private long misses;
+
+    private ExpiringCache(final int maxSize, final Duration ttl, final LongSupplier ticker) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be positive");
+        requireNonNull(ttl, "ttl cannot be null");
+        if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be positive");
+
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = requireNonNull(ticker, "ticker cannot be null");
+        // Access ordered, so that the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static <K, V> ExpiringCache<K, V> create(final int maxSize, final Duration ttl) {
+        return new ExpiringCache<>(maxSize, ttl, System::nanoTime);
+    }
+
+    /*
+     * The ticker provides the current time in nanoseconds, and is mostly
+     * useful for testing.
+     */
+    public static <K, V> ExpiringCache<K, V> create(final int maxSize, final Duration ttl, final LongSupplier ticker) {
+        return new ExpiringCache<>(maxSize, ttl, ticker);
+    }
+
+    public synchronized @Nullable V get(final K key) {
+        final @Nullable Entry<V> entry = this.entries.get(key);
+        if (entry == null) {
+            this.misses++;
+            return null;
+        }
+
+        if (this.ticker.getAsLong() - entry.expiresAt >= 0) {
+            this.entries.remove(key);
+            this.misses++;
+            return null;
+        }
+
+        this.hits++;
+        return entry.value;
+    }
+
+    public synchronized void put(final K key, final V value) {
+        requireNonNull(value, "value cannot be null");
+        this.entries.put(key, new Entry<>(value, this.ticker.getAsLong() + this.ttlNanos));
+    }
+
+    public synchronized void invalidate(final K key) {
+        this.entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(final Predicate<K> condition) {
+        requireNonNull(condition, "condition cannot be null");
+        this.entries.keySet().removeIf(condition);
+    }
+
+    public synchronized void invalidateAll() {
+        this.entries.clear();
+    }
+
+    // Includes expired entries that haven't been looked up since they expired
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    public synchronized long hits() {
+        return this.hits;
+    }
+
+    public synchronized long misses() {
+        return this.misses;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return ToStringer.create(this)
+                .append("size", this.entries.size())
+                .append("hits", this.hits)
+                .append("misses", this.misses)
+                .toString();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(final V value, final long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -20,6 +20,28 @@ public final class StringUtil {
         return arg.regionMatches(true, 0, prefix, 0, prefix.length());
     }
 
+    /*
+     * Folds the case of the provided string the same way String#equalsIgnoreCase
+     * compares characters, so that two strings are equal ignoring case if and only
+     * if their folded forms are equal. Returns the argument itself if it is
+     * already folded.
+     */
+    public static String foldCase(final String arg) {
+        final int length = arg.length();
+        int i = 0;
+        while (i < length && foldCase(arg.charAt(i)) == arg.charAt(i)) i++;
+        if (i == length) return arg;
+
+        final char[] chars = arg.toCharArray();
+        for (; i < length; i++) chars[i] = foldCase(chars[i]);
+
+        return new String(chars);
+    }
+
+    private static char foldCase(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
     public static boolean containsWhitespace(final String arg) {
         for (final char c : arg.toCharArray()) {
             if (Character.isWhitespace(c)) return true;
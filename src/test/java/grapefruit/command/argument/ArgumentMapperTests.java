@@ -1,13 +1,26 @@
 package grapefruit.command.argument;
 
+import grapefruit.command.argument.mapper.ArgumentMapper;
 import grapefruit.command.argument.mapper.ArgumentMappingException;
+import grapefruit.command.argument.mapper.CachingArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.DoubleArgumentMapper;
 import grapefruit.command.argument.mapper.builtin.EnumArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.IntArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.LongArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.RegistryArgumentMapper;
+import grapefruit.command.completion.CommandCompletion;
+import grapefruit.command.completion.CompletionBuilder;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.mock.NilCommandContext;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import static grapefruit.command.argument.mapper.builtin.NumericArgumentMapper.floatMapper;
@@ -23,6 +36,14 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ArgumentMapperTests {
 
+    private static List<String> complete(final ArgumentMapper<Object, ?> mapper, final String input) {
+        return mapper.complete(new NilCommandContext(), CompletionBuilder.of(CommandCompletion.factory(), input))
+                .filterCompletions()
+                .stream()
+                .map(CommandCompletion::completion)
+                .toList();
+    }
+
     @Test
     public void stringArgumentMapper_word() {
         final String word = "hello";
@@ -88,10 +109,128 @@ public class ArgumentMapperTests {
         assertDoesNotThrow(() -> assertEquals(TimeUnit.SECONDS, mapper.tryMap(new NilCommandContext(), inputOf("SECONDS"))));
     }
 
+    @Test
+    public void enumArgumentMapper_complete() {
+        assertEquals(List.of("microseconds", "milliseconds", "minutes"), complete(EnumArgumentMapper.lenient(TimeUnit.class), "MI"));
+        assertEquals(List.of("NANOSECONDS"), complete(EnumArgumentMapper.strict(TimeUnit.class), "n"));
+        assertEquals(List.of(), complete(EnumArgumentMapper.strict(TimeUnit.class), "x"));
+        assertEquals(TimeUnit.values().length, complete(EnumArgumentMapper.strict(TimeUnit.class), "").size());
+    }
+
     @Test
     public void enumArgumentMapper_lenient_tryMap() {
         final EnumArgumentMapper<Object, TimeUnit> mapper = EnumArgumentMapper.lenient(TimeUnit.class);
         assertDoesNotThrow(() -> assertEquals(TimeUnit.SECONDS, mapper.tryMap(new NilCommandContext(), inputOf("seconds"))));
         assertDoesNotThrow(() -> assertEquals(TimeUnit.SECONDS, mapper.tryMap(new NilCommandContext(), inputOf("SECONDS"))));
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "abc",
+            "11.44",
+            "2147483648" // 2^32 (Integer#MAX_VALUE + 1)
+    })
+    public void intArgumentMapper_invalidInput(final String arg) {
+        assertThrows(ArgumentMappingException.class, () -> IntArgumentMapper.intMapper().tryMapInt(new NilCommandContext(), inputOf(arg)));
+    }
+
+    @Test
+    public void primitiveArgumentMappers_validInput() {
+        assertDoesNotThrow(() -> assertEquals(-44, IntArgumentMapper.intMapper().tryMapInt(new NilCommandContext(), inputOf("-44"))));
+        assertDoesNotThrow(() -> assertEquals(2147483648L, LongArgumentMapper.longMapper().tryMapLong(new NilCommandContext(), inputOf("2147483648"))));
+        assertDoesNotThrow(() -> assertEquals(-3.5, DoubleArgumentMapper.doubleMapper().tryMapDouble(new NilCommandContext(), inputOf("-3.5"))));
+    }
+
+    @Test
+    public void intArgumentMapper_range() {
+        final IntArgumentMapper<Object> mapper = IntArgumentMapper.intMapper(1, 64);
+        assertDoesNotThrow(() -> assertEquals(64, mapper.tryMapInt(new NilCommandContext(), inputOf("64"))));
+        assertThrows(ArgumentMappingException.class, () -> mapper.tryMapInt(new NilCommandContext(), inputOf("0")));
+        assertThrows(ArgumentMappingException.class, () -> mapper.tryMapInt(new NilCommandContext(), inputOf("65")));
+        assertThrows(IllegalArgumentException.class, () -> IntArgumentMapper.intMapper(2, 1));
+    }
+
+    @Test
+    public void registryArgumentMapper_tryMap() {
+        final RegistryArgumentMapper<Object, Integer> mapper = RegistryArgumentMapper.create(Integer.class);
+        assertEquals(Optional.empty(), mapper.register("Spawn", 1));
+        assertDoesNotThrow(() -> assertEquals(Integer.valueOf(1), mapper.tryMap(new NilCommandContext(), inputOf("spawn"))));
+
+        // Registering under the same name ignoring case replaces the value
+        assertEquals(Optional.of(1), mapper.register("SPAWN", 2));
+        assertDoesNotThrow(() -> assertEquals(Integer.valueOf(2), mapper.tryMap(new NilCommandContext(), inputOf("Spawn"))));
+
+        assertEquals(Optional.of(2), mapper.unregister("spawn"));
+        assertThrows(ArgumentMappingException.class, () -> mapper.tryMap(new NilCommandContext(), inputOf("spawn")));
+        assertThrows(IllegalArgumentException.class, () -> mapper.register("two words", 3));
+    }
+
+    @Test
+    public void registryArgumentMapper_complete() {
+        final RegistryArgumentMapper<Object, String> mapper = RegistryArgumentMapper.create(String.class);
+        for (final String name : List.of("Nether", "nexus", "Arena", "north", "End")) mapper.register(name, name);
+        assertEquals(List.of("Nether", "nexus"), complete(mapper, "NE"));
+        assertEquals(List.of("Arena", "End", "Nether", "nexus", "north"), complete(mapper, ""));
+        assertEquals(List.of(), complete(mapper, "z"));
+
+        mapper.unregister("nexus");
+        mapper.register("Netherite", "Netherite");
+        assertEquals(List.of("Nether", "Netherite"), complete(mapper, "ne"));
+    }
+
+    @Test
+    public void cachingArgumentMapper_reusesResults() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final CachingArgumentMapper<Object, Integer> mapper = word().<Integer>mapping((context, value) -> {
+            if (value.equals("invalid")) throw new ArgumentMappingException();
+            lookups.incrementAndGet();
+            return value.length();
+        }).caching(16, Duration.ofMinutes(1));
+
+        final NilCommandContext context = new NilCommandContext();
+        assertDoesNotThrow(() -> assertEquals(Integer.valueOf(5), mapper.tryMap(context, inputOf("hello"))));
+        assertDoesNotThrow(() -> assertEquals(Integer.valueOf(5), mapper.tryMap(context, inputOf("hello world"))));
+        assertEquals(1, lookups.get());
+        assertEquals(1, mapper.hits());
+        assertEquals(1, mapper.misses());
+
+        // The cached token is consumed, same as if the delegate mapped it
+        final CommandInputTokenizer input = inputOf(" hello world");
+        assertDoesNotThrow(() -> mapper.tryMap(context, input));
+        assertEquals(" world", input.remaining());
+
+        // Failures are not cached
+        assertThrows(ArgumentMappingException.class, () -> mapper.tryMap(context, inputOf("invalid")));
+        assertThrows(ArgumentMappingException.class, () -> mapper.tryMap(context, inputOf("invalid")));
+        assertEquals(3, mapper.misses());
+
+        mapper.invalidateAll();
+        assertDoesNotThrow(() -> mapper.tryMap(context, inputOf("hello")));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void cachingArgumentMapper_perSource() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final CachingArgumentMapper<Object, String> mapper = word().<String>mapping((context, value) -> {
+            lookups.incrementAndGet();
+            return value;
+        }).caching(16, Duration.ofMinutes(1), true);
+
+        final NilCommandContext context = new NilCommandContext();
+        assertDoesNotThrow(() -> mapper.tryMap(context, inputOf("hello")));
+        assertDoesNotThrow(() -> mapper.tryMap(context, inputOf("hello")));
+        assertDoesNotThrow(() -> mapper.tryMap(new NilCommandContext(), inputOf("hello")));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void cachingArgumentMapper_skipsMultiWordTokens() {
+        final CachingArgumentMapper<Object, String> mapper = quotable().caching(16, Duration.ofMinutes(1));
+        final NilCommandContext context = new NilCommandContext();
+        assertDoesNotThrow(() -> assertEquals("hello world", mapper.tryMap(context, inputOf("\"hello world\""))));
+        assertDoesNotThrow(() -> assertEquals("hello world", mapper.tryMap(context, inputOf("\"hello world\""))));
+        assertEquals(0, mapper.hits());
+    }
+
 }
@@ -1,15 +1,25 @@
 package grapefruit.command.argument;
 
+import grapefruit.command.argument.condition.CachedCondition;
 import grapefruit.command.argument.condition.CommandCondition;
 import grapefruit.command.argument.condition.UnfulfilledConditionException;
+import grapefruit.command.dispatcher.CommandContext;
 import grapefruit.command.mock.NilCommandContext;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import static grapefruit.command.argument.condition.CommandCondition.and;
+import static grapefruit.command.argument.condition.CommandCondition.cached;
 import static grapefruit.command.argument.condition.CommandCondition.or;
+import static grapefruit.command.argument.condition.CommandCondition.withCost;
 import static grapefruit.command.mock.AlwaysCondition.fail;
 import static grapefruit.command.mock.AlwaysCondition.pass;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class CommandConditionTests {
@@ -49,4 +59,81 @@ public class CommandConditionTests {
         final CommandCondition<Object> condition = or(pass(), pass(), pass());
         assertDoesNotThrow(() -> condition.test(new NilCommandContext()));
     }
+
+    @Test
+    public void or_stopsAtFirstSuccess() {
+        final List<String> tested = new ArrayList<>();
+        final CommandCondition<Object> condition = or(
+                recording("first", tested, false),
+                recording("second", tested, true),
+                recording("third", tested, true)
+        );
+
+        assertDoesNotThrow(() -> condition.test(new NilCommandContext()));
+        assertIterableEquals(List.of("first", "second"), tested);
+    }
+
+    @Test
+    public void and_cheapestFirst() {
+        final List<String> tested = new ArrayList<>();
+        final CommandCondition<Object> condition = and(
+                withCost(recording("expensive", tested, true), 100),
+                and(withCost(recording("medium", tested, true), 10), recording("free", tested, true)),
+                withCost(recording("cheap", tested, true), 1)
+        );
+
+        assertDoesNotThrow(() -> condition.test(new NilCommandContext()));
+        assertIterableEquals(List.of("free", "cheap", "medium", "expensive"), tested);
+        assertEquals(111, condition.cost());
+    }
+
+    @Test
+    public void withCost_negative() {
+        assertThrows(IllegalArgumentException.class, () -> withCost(pass(), -1));
+    }
+
+    @Test
+    public void cached_testsOncePerSource() {
+        final List<String> tested = new ArrayList<>();
+        final CommandCondition<Object> condition = cached(recording("delegate", tested, true), Duration.ofMinutes(1), 16);
+        final CommandContext<Object> first = new NilCommandContext();
+        final CommandContext<Object> second = new NilCommandContext();
+        assertDoesNotThrow(() -> condition.test(first));
+        assertDoesNotThrow(() -> condition.test(first));
+        assertDoesNotThrow(() -> condition.test(second));
+        assertEquals(2, tested.size());
+    }
+
+    @Test
+    public void cached_remembersFailure() {
+        final List<String> tested = new ArrayList<>();
+        final CommandCondition<Object> condition = cached(recording("delegate", tested, false), Duration.ofMinutes(1), 16);
+        final CommandContext<Object> context = new NilCommandContext();
+        assertThrows(UnfulfilledConditionException.class, () -> condition.test(context));
+        assertThrows(UnfulfilledConditionException.class, () -> condition.test(context));
+        assertEquals(1, tested.size());
+    }
+
+    @Test
+    public void cached_invalidate() {
+        final List<String> tested = new ArrayList<>();
+        final CachedCondition<Object> condition = cached(recording("delegate", tested, true), Duration.ofMinutes(1), 16);
+        final CommandContext<Object> context = new NilCommandContext();
+        assertDoesNotThrow(() -> condition.test(context));
+        condition.invalidate(context.source());
+        assertDoesNotThrow(() -> condition.test(context));
+        condition.invalidateAll();
+        assertDoesNotThrow(() -> condition.test(context));
+        assertEquals(3, tested.size());
+    }
+
+    private static CommandCondition<Object> recording(final String name, final List<String> tested, final boolean pass) {
+        return new CommandCondition<>() {
+            @Override
+            public void test(final CommandContext<Object> context) throws UnfulfilledConditionException {
+                tested.add(name);
+                if (!pass) throw new UnfulfilledConditionException(this);
+            }
+        };
+    }
 }
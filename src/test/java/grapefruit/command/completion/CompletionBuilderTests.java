@@ -0,0 +1,109 @@
+package grapefruit.command.completion;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompletionBuilderTests {
+
+    private static List<String> complete(final String input, final CompletionRequest request, final String... completions) {
+        return CompletionBuilder.of(CommandCompletion.factory(), input, request)
+                .includeStrings(completions)
+                .build()
+                .filterCompletions()
+                .stream()
+                .map(CommandCompletion::completion)
+                .toList();
+    }
+
+    @Test
+    public void unlimited_filtersByInput() {
+        assertEquals(List.of("alpha", "ALPS"), complete("al", CompletionRequest.unlimited(), "alpha", "beta", "ALPS"));
+    }
+
+    @Test
+    public void limit_stopsCollecting() {
+        final AtomicInteger created = new AtomicInteger();
+        final CompletionFactory factory = x -> {
+            created.incrementAndGet();
+            return CommandCompletion.factory().create(x);
+        };
+        final CompletionBuilder builder = CompletionBuilder.of(factory, "a", CompletionRequest.of(2))
+                .includeStrings(new String[] { "a1", "b", "a2" });
+        assertTrue(builder.isFull());
+
+        builder.includeStrings(List.of("a3", "a4"));
+        assertEquals(2, builder.build().filterCompletions().size());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void relevance_exactThenPrefix() {
+        final CompletionRequest request = CompletionRequest.of(10, CompletionRanking.relevance());
+        assertEquals(List.of("Test", "test", "Testing", "TESTS"), complete("Test", request, "TESTS", "Testing", "test", "Test"));
+    }
+
+    @Test
+    public void relevance_weightAndLimit() {
+        final Map<String, Long> uses = Map.of("stop", 3L, "status", 7L, "start", 1L);
+        final CompletionRequest request = CompletionRequest.of(2, CompletionRanking.relevance(x -> uses.getOrDefault(x, 0L)));
+        assertEquals(List.of("status", "stop"), complete("st", request, "start", "stop", "status", "stay"));
+    }
+
+    @Test
+    public void includeStrings_streamIsLazy() {
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        final CompletionBuilder builder = CompletionBuilder.of(CommandCompletion.factory(), "user1", CompletionRequest.of(3))
+                .includeStrings(() -> IntStream.range(0, 1_000_000)
+                        .mapToObj(x -> "user" + x)
+                        .peek(x -> pulled.incrementAndGet())
+                        .onClose(() -> closed.set(true)));
+
+        assertEquals(List.of("user1", "user10", "user11"), builder.build().filterCompletions().stream().map(CommandCompletion::completion).toList());
+        assertEquals(12, pulled.get());
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void includeStrings_fullBuilderSkipsSupplier() {
+        final AtomicBoolean opened = new AtomicBoolean();
+        CompletionBuilder.of(CommandCompletion.factory(), "", CompletionRequest.of(1))
+                .includeString("first")
+                .includeStrings(() -> {
+                    opened.set(true);
+                    return Stream.of("second");
+                });
+
+        assertFalse(opened.get());
+    }
+
+    @Test
+    public void includeStrings_iterableWithMapper() {
+        final Iterable<Integer> source = () -> IntStream.range(0, 20).iterator();
+        final List<String> result = CompletionBuilder.of(CommandCompletion.factory(), "1")
+                .includeStrings(source, String::valueOf)
+                .build()
+                .filterCompletions()
+                .stream()
+                .map(CommandCompletion::completion)
+                .toList();
+
+        assertEquals(11, result.size());
+    }
+
+    @Test
+    public void of_invalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> CompletionRequest.of(0));
+    }
+}
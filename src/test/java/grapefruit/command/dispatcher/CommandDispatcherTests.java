@@ -1,12 +1,27 @@
 package grapefruit.command.dispatcher;
 
+import grapefruit.command.CommandException;
 import grapefruit.command.CommandModule;
 import grapefruit.command.argument.CommandArgumentException;
+import grapefruit.command.argument.CommandChain;
+import grapefruit.command.argument.CommandChainFactory;
 import grapefruit.command.argument.DuplicateFlagException;
 import grapefruit.command.argument.UnrecognizedFlagException;
 import grapefruit.command.argument.condition.UnfulfilledConditionException;
+import grapefruit.command.argument.mapper.AbstractArgumentMapper;
+import grapefruit.command.argument.mapper.ArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.StringArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.DoubleArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.IntArgumentMapper;
+import grapefruit.command.argument.mapper.builtin.LongArgumentMapper;
 import grapefruit.command.completion.CommandCompletion;
+import grapefruit.command.completion.CompletionAccumulator;
+import grapefruit.command.completion.CompletionBuilder;
+import grapefruit.command.completion.CompletionRanking;
+import grapefruit.command.completion.CompletionRequest;
 import grapefruit.command.dispatcher.config.DispatcherConfig;
+import grapefruit.command.dispatcher.input.CommandInputTokenizer;
+import grapefruit.command.dispatcher.input.MissingInputException;
 import grapefruit.command.mock.ColorArgumentMapper;
 import grapefruit.command.mock.TestArgumentMapper;
 import grapefruit.command.mock.TestCommandModule;
@@ -17,16 +32,31 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static grapefruit.command.argument.mapper.builtin.StringArgumentMapper.word;
 import static grapefruit.command.mock.AlwaysCondition.fail;
 import static grapefruit.command.testutil.ExtraAssertions.assertContainsAll;
 import static grapefruit.command.testutil.Helper.completions;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -110,6 +140,65 @@ public class CommandDispatcherTests {
         assertThrows(NoSuchCommandException.class, () -> dispatcher.dispatch(new Object(), "test"));
     }
 
+    @Test
+    public void copyOnWriteRegistrations_success() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .copyOnWriteRegistrations()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command0 = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build());
+        final CommandModule<Object> command1 = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("other").build()).build());
+
+        dispatcher.register(List.of(command0, command1));
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test"));
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "other"));
+
+        dispatcher.unregister(command0);
+        assertThrows(NoSuchCommandException.class, () -> dispatcher.dispatch(new Object(), "test"));
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "other"));
+    }
+
+    @Test
+    public void copyOnWriteRegistrations_concurrentDispatch() throws InterruptedException {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .copyOnWriteRegistrations()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> stable = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .then(factory.literal("stable").build()).build());
+        final CommandModule<Object> reloaded = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .then(factory.literal("reloaded").build()).build());
+
+        dispatcher.register(stable);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            while (running.get()) {
+                try {
+                    dispatcher.dispatch(new Object(), "test stable");
+                    dispatcher.complete(new Object(), "test ");
+                } catch (final Throwable ex) {
+                    failure.set(ex);
+                    return;
+                }
+            }
+        });
+
+        reader.start();
+        for (int i = 0; i < 500; i++) {
+            dispatcher.register(reloaded);
+            dispatcher.unregister(reloaded);
+        }
+
+        running.set(false);
+        reader.join();
+        assertNull(failure.get());
+    }
+
     @Test
     public void dispatch_contextDecoratorCalled() {
         final AtomicBoolean state = new AtomicBoolean(false);
@@ -125,6 +214,243 @@ public class CommandDispatcherTests {
         assertTrue(state.get());
     }
 
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void dispatch_contextDecoratorValues(final boolean threadSafe) {
+        final Key<String> decorated = Key.named(String.class, "decorated");
+        final Key<String> argument = Key.named(String.class, "argument");
+        final DispatcherConfig.Builder<Object> builder = DispatcherConfig.builder()
+                .decorateContext((context, mode) -> context.store(decorated, "value"));
+        if (threadSafe) builder.threadSafeContexts();
+
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(builder.build());
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(argument).mapWith(word()).build())
+                .build());
+
+        final AtomicReference<CommandContext<Object>> context = new AtomicReference<>();
+        dispatcher.register(command);
+        dispatcher.subscribe((ExecutionListener.Pre<Object>) x -> {
+            context.set(x);
+            return true;
+        });
+
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test hello"));
+        assertEquals("value", context.get().require(decorated));
+        assertEquals("hello", context.get().require(argument));
+        assertEquals(2, context.get().asMap().size());
+        assertTrue(context.get().remove(argument));
+        assertNull(context.get().nullable(argument));
+    }
+
+    @Test
+    public void dispatchAsync_success() throws Exception {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build());
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+
+        dispatcher.register(command);
+        dispatcher.subscribe((ExecutionListener.Pre<Object>) x -> {
+            thread.set(Thread.currentThread());
+            return true;
+        });
+
+        try {
+            // Parsing errors are thrown on the calling thread
+            assertThrows(NoSuchCommandException.class, () -> dispatcher.dispatchAsync(new Object(), "unknown", executor));
+
+            final ExecutionResult<Object> result = dispatcher.dispatchAsync(new Object(), "test", executor).get(5, TimeUnit.SECONDS);
+            assertTrue(result.successful());
+            assertNotEquals(Thread.currentThread(), thread.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void dispatchAsync_failed() throws Exception {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command = new CommandModule<>() {
+            @Override
+            public CommandChain<Object> chain(final CommandChainFactory<Object> factory) {
+                return factory.newChain().then(factory.literal("test").build()).build();
+            }
+
+            @Override
+            public void execute(final CommandContext<Object> context) {
+                throw new IllegalStateException();
+            }
+        };
+
+        dispatcher.register(command);
+        final ExecutionResult<Object> result = dispatcher.dispatchAsync(new Object(), "test", Runnable::run).get();
+        assertFalse(result.successful());
+        assertInstanceOf(IllegalStateException.class, result.asFailed().exception());
+    }
+
+    @Test
+    public void dispatchAsync_cancelled() throws CommandException {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build());
+
+        dispatcher.register(command);
+        dispatcher.subscribe((ExecutionListener.Pre<Object>) x -> false);
+        assertTrue(dispatcher.dispatchAsync(new Object(), "test", Runnable::run).isCancelled());
+    }
+
+    @Test
+    public void dispatchAsync_synchronousCommand() throws CommandException {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        final CommandModule<Object> command = new CommandModule<>() {
+            @Override
+            public CommandChain<Object> chain(final CommandChainFactory<Object> factory) {
+                return factory.newChain().then(factory.literal("test").build()).build();
+            }
+
+            @Override
+            public void execute(final CommandContext<Object> context) {
+                thread.set(Thread.currentThread());
+            }
+
+            @Override
+            public boolean isSynchronous() {
+                return true;
+            }
+        };
+
+        dispatcher.register(command);
+        final CompletableFuture<ExecutionResult<Object>> future = dispatcher.dispatchAsync(new Object(), "test", x -> {
+            throw new IllegalStateException("Synchronous commands should not be submitted to the executor");
+        });
+
+        assertTrue(future.isDone());
+        assertEquals(Thread.currentThread(), thread.get());
+    }
+
+    @Test
+    public void dispatchAsync_virtualThreadExecution() throws Exception {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .virtualThreadExecution()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final AtomicReference<Thread> thread = new AtomicReference<>();
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build(), context -> thread.set(Thread.currentThread()));
+
+        dispatcher.register(command);
+        assertTrue(dispatcher.dispatchAsync(new Object(), "test").get(5, TimeUnit.SECONDS).successful());
+        assertNotEquals(Thread.currentThread(), thread.get());
+    }
+
+    @Test
+    public void dispatchAsync_maxConcurrentExecutions() throws Exception {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .virtualThreadExecution()
+                .maxConcurrentExecutions(2)
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build(), context -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException ex) {
+                throw new RuntimeException(ex);
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        dispatcher.register(command);
+        final Object source = new Object();
+        final List<CompletableFuture<ExecutionResult<Object>>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) futures.add(dispatcher.dispatchAsync(source, "test"));
+        for (final CompletableFuture<ExecutionResult<Object>> future : futures) {
+            assertTrue(future.get(5, TimeUnit.SECONDS).successful());
+        }
+
+        assertTrue(maxRunning.get() <= 2);
+        assertThrows(IllegalArgumentException.class, () -> DispatcherConfig.builder().maxConcurrentExecutions(0));
+    }
+
+    @Test
+    public void dispatchAsync_maxConcurrentExecutions_boundedPool() throws Exception {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .maxConcurrentExecutions(1)
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CountDownLatch release = new CountDownLatch(1);
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("block").build()).build(), context -> {
+            try {
+                release.await();
+            } catch (final InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+        }));
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build(), context -> {}));
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final Object flooding = new Object();
+            final List<CompletableFuture<ExecutionResult<Object>>> blocked = new ArrayList<>();
+            for (int i = 0; i < 8; i++) blocked.add(dispatcher.dispatchAsync(flooding, "block", pool));
+
+            // Only one of the capped executions holds a thread, so the other source still gets the second one
+            assertTrue(dispatcher.dispatchAsync(new Object(), "test", pool).get(5, TimeUnit.SECONDS).successful());
+            // Cancelled while waiting, so it is never executed
+            blocked.get(7).cancel(true);
+
+            release.countDown();
+            for (int i = 0; i < 7; i++) assertTrue(blocked.get(i).get(5, TimeUnit.SECONDS).successful());
+            assertTrue(blocked.get(7).isCancelled());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void dispatchAsync_cancelInterrupts() throws Exception {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .virtualThreadExecution()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build()).build(), context -> {
+            started.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (final InterruptedException ex) {
+                interrupted.countDown();
+            }
+        });
+
+        dispatcher.register(command);
+        final CompletableFuture<ExecutionResult<Object>> future = dispatcher.dispatchAsync(new Object(), "test");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
     @Test
     public void dispatch_conditionFailed() {
         final DispatcherConfig<Object> config = DispatcherConfig.builder()
@@ -302,6 +628,56 @@ public class CommandDispatcherTests {
         assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test -hc #ffffff"));
     }
 
+    @Test
+    public void dispatch_nonAsciiFlagShorthand() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .flags()
+                .then(factory.presenceFlag("hello").assumeShorthand().build())
+                .then(factory.presenceFlag("\u00e9t\u00e9").assumeShorthand().build())
+                .build());
+
+        dispatcher.register(command);
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test -\u00e9"));
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test -h\u00e9"));
+        assertThrows(UnrecognizedFlagException.class, () -> dispatcher.dispatch(new Object(), "test -\u00e8"));
+    }
+
+    @Test
+    public void dispatch_flagsBetweenArguments() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final Key<String> first = Key.named(String.class, "first");
+        final Key<String> second = Key.named(String.class, "second");
+        final Key<String> color = Key.named(String.class, "color");
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(first).mapWith(word()).build())
+                .then(factory.required(second).mapWith(word()).build())
+                .flags()
+                .then(factory.presenceFlag("hello").assumeShorthand().build())
+                .then(factory.valueFlag(color).assumeShorthand().mapWith(new ColorArgumentMapper()).build())
+                .build());
+
+        final AtomicReference<CommandContext<Object>> context = new AtomicReference<>();
+        dispatcher.register(command);
+        dispatcher.subscribe((ExecutionListener.Pre<Object>) x -> {
+            context.set(x);
+            return true;
+        });
+
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test -h a --color #ffffff b"));
+        assertEquals("a", context.get().require(first));
+        assertEquals("b", context.get().require(second));
+        assertEquals("#ffffff", context.get().require(color));
+        assertThrows(CommandSyntaxException.class, () -> dispatcher.dispatch(new Object(), "test a -h"));
+    }
+
     @Test
     public void dispatch_tooMany_unrecognizedFlag() {
         final DispatcherConfig<Object> config = DispatcherConfig.builder()
@@ -468,4 +844,400 @@ public class CommandDispatcherTests {
         final List<CommandCompletion> completions = dispatcher.complete(new Object(), input);
         assertIterableEquals(List.of(), completions);
     }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void completionSession_matchesComplete(final boolean threadSafe) {
+        final AtomicInteger decorated = new AtomicInteger();
+        final DispatcherConfig.Builder<Object> builder = DispatcherConfig.builder()
+                .eagerFlagCompletions()
+                .decorateContext((context, mode) -> decorated.incrementAndGet());
+        if (threadSafe) builder.threadSafeContexts();
+
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(builder.build());
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("testcommand").aliases("testcmd", "test", "ts").build())
+                .then(factory.literal("hello").aliases("hl").build())
+                .arguments()
+                .then(factory.required("stringarg", String.class).mapWith(word()).build())
+                .flags()
+                .then(factory.valueFlag("color", String.class).assumeShorthand().mapWith(new ColorArgumentMapper()).build())
+                .then(factory.valueFlag("stringflag", String.class).assumeShorthand().mapWith(word()).build())
+                .then(factory.presenceFlag("boolflag").assumeShorthand().build())
+                .build());
+
+        dispatcher.register(command);
+        final Object source = new Object();
+        final CompletionSession<Object> session = dispatcher.completionSession(source);
+        final String typed = "test hello argname -b --color #ae43ff -s abc";
+        final List<String> inputs = new ArrayList<>();
+        for (int i = 0; i <= typed.length(); i++) inputs.add(typed.substring(0, i));
+        // Backspace, then edit an earlier token
+        inputs.addAll(List.of("test hello argname -b --col", "test hello argname -b ", "test hl x", "test hl x --color #f"));
+
+        for (final String input : inputs) {
+            assertIterableEquals(dispatcher.complete(source, input), session.complete(input), input);
+        }
+
+        decorated.set(0);
+        session.complete("test hello argname -b --color #ae43ff ");
+        session.complete("test hello argname -b --color #ae43ff -");
+        session.complete("test hello argname -b --color #ae43ff --s");
+        assertEquals(1, decorated.get());
+    }
+
+    @Test
+    public void completionSession_commandUnregistered() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .eagerFlagCompletions()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .flags()
+                .then(factory.presenceFlag("boolflag").assumeShorthand().build())
+                .build());
+
+        dispatcher.register(command);
+        final CompletionSession<Object> session = dispatcher.completionSession(new Object());
+        assertEquals(2, session.complete("test ").size());
+        dispatcher.unregister(command);
+        assertIterableEquals(List.of(), session.complete("test -"));
+    }
+
+    @Test
+    public void complete_limitAndRanking() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        for (final String name : List.of("tester", "test", "testing", "tent")) {
+            dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                    .then(factory.literal(name).build()).build()));
+        }
+
+        final List<CommandCompletion> limited = dispatcher.complete(new Object(), "te", CompletionRequest.of(2));
+        assertEquals(2, limited.size());
+
+        final List<CommandCompletion> ranked = dispatcher.complete(new Object(), "tes", CompletionRequest.of(2, CompletionRanking.relevance(String::length)));
+        assertIterableEquals(completions("testing|tester", "tes"), ranked);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { false, true })
+    public void completeAsync_timeoutReturnsPartialResults(final boolean timeout) {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final ArgumentMapper<Object, String> mapper = new TestArgumentMapper("value") {
+            @Override
+            public CompletableFuture<CompletionAccumulator> completeAsync(final CommandContext<Object> context, final CompletionBuilder builder) {
+                builder.includeString("fast");
+                return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        release.await();
+                    } catch (final InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+
+                    return builder.includeString("slow").build();
+                }, executor);
+            }
+        };
+
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required("arg", String.class).mapWith(mapper).build())
+                .build()));
+
+        try {
+            if (timeout) {
+                final CompletionRequest request = CompletionRequest.unlimited().withTimeout(Duration.ofMillis(50));
+                final List<CommandCompletion> completions = assertDoesNotThrow(() -> dispatcher.completeAsync(new Object(), "test ", request).get(5, TimeUnit.SECONDS));
+                assertIterableEquals(completions("fast", ""), completions);
+            } else {
+                final CompletableFuture<List<CommandCompletion>> future = dispatcher.completeAsync(new Object(), "test ");
+                assertFalse(future.isDone());
+                release.countDown();
+                assertIterableEquals(completions("fast|slow", ""), assertDoesNotThrow(() -> future.get(5, TimeUnit.SECONDS)));
+            }
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void dispatch_unrecognizedFlag_diagnostics() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final CommandModule<Object> command = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .flags()
+                .then(factory.presenceFlag("hello").build())
+                .build());
+
+        dispatcher.register(command);
+
+        final UnrecognizedFlagException ex = assertThrows(UnrecognizedFlagException.class, () -> dispatcher.dispatch(new Object(), "test --flag extra"));
+        assertEquals("--flag", ex.argument());
+        assertEquals("test --flag", ex.consumed());
+        assertEquals(" extra", ex.remaining());
+        // Stack traces are not captured unless enabled
+        assertEquals(0, ex.getStackTrace().length);
+    }
+
+    @Test
+    public void tryDispatch_outcomes() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final Key<String> arg = Key.named(String.class, "arg");
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(arg).mapWith(word()).build())
+                .flags()
+                .then(factory.presenceFlag("hello").build())
+                .build(), context -> {
+            if (context.require(arg).equals("throw")) throw new IllegalStateException();
+        }));
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("guarded").expect(fail()).build()).build()));
+
+        final DispatchOutcome<Object> success = dispatcher.tryDispatch(new Object(), "test value --hello");
+        assertTrue(success.successful());
+        assertEquals("value", assertInstanceOf(DispatchOutcome.Successful.class, success).context().require(arg));
+
+        assertInstanceOf(DispatchOutcome.NoSuchCommand.class, dispatcher.tryDispatch(new Object(), "unknown"));
+        assertInstanceOf(DispatchOutcome.ConditionFailed.class, dispatcher.tryDispatch(new Object(), "guarded"));
+
+        final DispatchOutcome<Object> tooFew = dispatcher.tryDispatch(new Object(), "test");
+        assertInstanceOf(CommandSyntaxException.class, assertInstanceOf(DispatchOutcome.SyntaxError.class, tooFew).exception());
+        final DispatchOutcome<Object> badFlag = dispatcher.tryDispatch(new Object(), "test value --other");
+        assertInstanceOf(UnrecognizedFlagException.class, assertInstanceOf(DispatchOutcome.SyntaxError.class, badFlag).exception());
+        final DispatchOutcome<Object> duplicateFlag = dispatcher.tryDispatch(new Object(), "test value --hello --hello");
+        assertInstanceOf(DuplicateFlagException.class, assertInstanceOf(DispatchOutcome.SyntaxError.class, duplicateFlag).exception());
+
+        final DispatchOutcome<Object> failed = dispatcher.tryDispatch(new Object(), "test throw");
+        assertFalse(failed.successful());
+        assertInstanceOf(IllegalStateException.class, assertInstanceOf(DispatchOutcome.ExecutionFailed.class, failed).exception());
+
+        dispatcher.subscribe((ExecutionListener.Pre<Object>) x -> false);
+        assertInstanceOf(DispatchOutcome.Cancelled.class, dispatcher.tryDispatch(new Object(), "test value"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void dispatchAll_outcomes(final boolean stopOnFailure) {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final Key<String> arg = Key.named(String.class, "arg");
+        final List<String> executed = new ArrayList<>();
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(arg).mapWith(word()).build())
+                .build(), context -> executed.add(context.require(arg))));
+
+        final List<DispatchOutcome<Object>> outcomes = dispatcher.dispatchAll(
+                new Object(),
+                List.of("test a", "  test b", "TEST c", "test d", "testing e", "test", "test f"),
+                stopOnFailure
+        );
+
+        if (stopOnFailure) {
+            assertEquals(5, outcomes.size());
+            assertEquals(List.of("a", "b", "c", "d"), executed);
+        } else {
+            assertEquals(7, outcomes.size());
+            assertEquals(List.of("a", "b", "c", "d", "f"), executed);
+            assertInstanceOf(DispatchOutcome.SyntaxError.class, outcomes.get(5));
+            assertTrue(outcomes.get(6).successful());
+        }
+
+        for (int i = 0; i < 4; i++) assertTrue(outcomes.get(i).successful());
+        // "test" must not be mistaken for the route of "testing"
+        assertInstanceOf(DispatchOutcome.NoSuchCommand.class, outcomes.get(4));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void dispatchAll_unregisteredMidBatch(final boolean copyOnWrite) {
+        final DispatcherConfig.Builder<Object> builder = DispatcherConfig.builder();
+        if (copyOnWrite) builder.copyOnWriteRegistrations();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(builder.build());
+        final Key<String> arg = Key.named(String.class, "arg");
+        final List<String> executed = new ArrayList<>();
+        final CommandModule<Object> test = TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(arg).mapWith(word()).build())
+                .build(), context -> executed.add(context.require(arg)));
+        dispatcher.register(test);
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("drop").build())
+                .build(), context -> dispatcher.unregister(test)));
+
+        final List<DispatchOutcome<Object>> outcomes = assertDoesNotThrow(
+                () -> dispatcher.dispatchAll(new Object(), List.of("test a", "drop", "test b"))
+        );
+        assertEquals(3, outcomes.size());
+        assertTrue(outcomes.get(0).successful());
+        assertTrue(outcomes.get(1).successful());
+        // The route of "test" was cached before it got unregistered
+        assertInstanceOf(DispatchOutcome.NoSuchCommand.class, outcomes.get(2));
+        assertEquals(List.of("a"), executed);
+    }
+
+    @Test
+    public void dispatchAllParallel_orderedExecution() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final Key<String> arg = Key.named(String.class, "arg");
+        final AtomicInteger parallelExecutions = new AtomicInteger();
+        final List<String> ordered = new ArrayList<>();
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("seq").build())
+                .arguments()
+                .then(factory.required(arg).mapWith(word()).build())
+                .build(), context -> ordered.add(context.require(arg) + parallelExecutions.get())));
+        dispatcher.register(new CommandModule<>() {
+            @Override
+            public CommandChain<Object> chain(final CommandChainFactory<Object> factory) {
+                return factory.newChain().then(factory.literal("par").build()).build();
+            }
+
+            @Override
+            public void execute(final CommandContext<Object> context) {
+                parallelExecutions.incrementAndGet();
+            }
+
+            @Override
+            public boolean isOrderInsensitive() {
+                return true;
+            }
+        });
+
+        final List<String> commands = new ArrayList<>(List.of("seq a", "unknown"));
+        for (int i = 0; i < 10; i++) commands.add("par");
+        commands.addAll(List.of("seq b", "seq", "seq c"));
+
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final List<DispatchOutcome<Object>> outcomes = dispatcher.dispatchAllParallel(new Object(), commands, pool);
+            assertEquals(commands.size(), outcomes.size());
+            assertInstanceOf(DispatchOutcome.NoSuchCommand.class, outcomes.get(1));
+            assertInstanceOf(DispatchOutcome.SyntaxError.class, outcomes.get(13));
+            for (int i = 2; i < 12; i++) assertTrue(outcomes.get(i).successful());
+            // Ordered commands wait for the parallel ones before them
+            assertEquals(List.of("a0", "b10", "c10"), ordered);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parseCache_reusesPureArguments() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .parseCache(16, Duration.ofMinutes(1))
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final Key<String> arg = Key.named(String.class, "arg");
+        final AtomicInteger mappings = new AtomicInteger();
+        final ArgumentMapper<Object, String> mapper = new AbstractArgumentMapper<>(String.class, false) {
+            @Override
+            public String tryMap(final CommandContext<Object> context, final CommandInputTokenizer input) throws MissingInputException {
+                mappings.incrementAndGet();
+                return input.readWord();
+            }
+
+            @Override
+            public boolean isPure() {
+                return true;
+            }
+        };
+
+        final Object forbidden = new Object();
+        final List<String> executed = new ArrayList<>();
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").expect(context -> {
+                    if (context.source() == forbidden) throw new UnfulfilledConditionException(fail());
+                }).build())
+                .arguments()
+                .then(factory.required(arg).mapWith(mapper).build())
+                .flags()
+                .then(factory.presenceFlag("hello").build())
+                .build(), context -> executed.add(context.require(arg) + context.has(Key.named(Boolean.class, "hello")))));
+
+        assertTrue(dispatcher.tryDispatch(new Object(), "test a --hello").successful());
+        assertTrue(dispatcher.tryDispatch(new Object(), "test a --hello").successful());
+        assertEquals(1, mappings.get());
+        // Conditions are tested for every dispatch
+        assertInstanceOf(DispatchOutcome.ConditionFailed.class, dispatcher.tryDispatch(forbidden, "test a --hello"));
+        assertTrue(dispatcher.tryDispatch(new Object(), "test b").successful());
+        assertEquals(2, mappings.get());
+        assertEquals(List.of("atrue", "atrue", "bfalse"), executed);
+
+        // Registrations clear the cache
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("other").build()).build()));
+        assertTrue(dispatcher.tryDispatch(new Object(), "test a --hello").successful());
+        assertEquals(3, mappings.get());
+    }
+
+    @Test
+    public void parseCache_skipsImpureArguments() {
+        final DispatcherConfig<Object> config = DispatcherConfig.builder()
+                .parseCache(16, Duration.ofMinutes(1))
+                .build();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(config);
+        final AtomicInteger mappings = new AtomicInteger();
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(Key.named(String.class, "arg")).mapWith(StringArgumentMapper.<Object>word().mapping((context, value) -> {
+                    mappings.incrementAndGet();
+                    return value;
+                })).build())
+                .build()));
+
+        assertTrue(dispatcher.tryDispatch(new Object(), "test a").successful());
+        assertTrue(dispatcher.tryDispatch(new Object(), "test a").successful());
+        assertEquals(2, mappings.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = { true, false })
+    public void dispatch_primitiveArguments(final boolean threadSafe) {
+        final DispatcherConfig.Builder<Object> builder = DispatcherConfig.builder();
+        if (threadSafe) builder.threadSafeContexts();
+        final CommandDispatcher<Object> dispatcher = CommandDispatcher.using(builder.build());
+        final Key<Integer> x = Key.named(Integer.class, "x");
+        final Key<Long> amount = Key.named(Long.class, "amount");
+        final Key<Double> scale = Key.named(Double.class, "scale");
+        final AtomicReference<CommandContext<Object>> executed = new AtomicReference<>();
+        dispatcher.register(TestCommandModule.of(factory -> factory.newChain()
+                .then(factory.literal("test").build())
+                .arguments()
+                .then(factory.required(x).mapWith(IntArgumentMapper.intMapper()).build())
+                .then(factory.required(amount).mapWith(LongArgumentMapper.longMapper()).build())
+                .flags()
+                .then(factory.valueFlag(scale).mapWith(DoubleArgumentMapper.doubleMapper()).build())
+                .build(), executed::set));
+
+        assertDoesNotThrow(() -> dispatcher.dispatch(new Object(), "test -12 9000000000 --scale 0.25"));
+        final CommandContext<Object> context = executed.get();
+        assertEquals(-12, context.getInt(x));
+        assertEquals(9000000000L, context.getLong(amount));
+        assertEquals(0.25, context.getDouble(scale));
+        // Primitive values are accessible through the generic methods as well
+        assertEquals(Integer.valueOf(-12), context.require(x));
+        assertEquals(0.25, context.asMap().get(scale));
+    }
 }
@@ -159,6 +159,24 @@ public class CommandInputTokenizerTests {
         assertDoesNotThrow(() -> assertEquals(last, input.lastConsumed().orElseThrow()));
     }
 
+    @Test
+    public void lastConsumed_manyReads() {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap("a ".repeat(64));
+        for (int i = 0; i < 64; i++) {
+            assertDoesNotThrow(input::readWord);
+            assertDoesNotThrow(() -> assertEquals("a", input.lastConsumed().orElseThrow()));
+        }
+    }
+
+    @Test
+    public void peekWord_doesNotConsume() {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap("hello  world");
+        assertDoesNotThrow(input::readWord);
+        assertEquals("world", input.peekWord());
+        assertEquals(5, input.cursor());
+        assertDoesNotThrow(() -> assertEquals("hello", input.lastConsumed().orElseThrow()));
+    }
+
     @Test
     public void canReadNonWhitespace_canRead() {
         final String arg = " hello ";
@@ -172,4 +190,94 @@ public class CommandInputTokenizerTests {
         final CommandInputTokenizer input = CommandInputTokenizer.wrap(arg);
         assertFalse(input.canReadNonWhitespace());
     }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,0",
+            "+17,17",
+            "-9223372036854775808,-9223372036854775808",
+            "9223372036854775807,9223372036854775807"
+    })
+    public void tryReadLong_valid(final String arg, final long expected) {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(arg + " rest");
+        assertDoesNotThrow(() -> assertTrue(input.tryReadLong(Long.MIN_VALUE, Long.MAX_VALUE)));
+        assertEquals(expected, input.lastLong());
+        assertEquals(" rest", input.remaining());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "-",
+            "--1",
+            "1.5",
+            "12a",
+            "9223372036854775808", // Long#MAX_VALUE + 1
+            "-9223372036854775809" // Long#MIN_VALUE - 1
+    })
+    public void tryReadLong_invalid(final String arg) {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(arg + " rest");
+        assertDoesNotThrow(() -> assertFalse(input.tryReadLong(Long.MIN_VALUE, Long.MAX_VALUE)));
+        // The invalid word is still consumed
+        assertEquals(" rest", input.remaining());
+    }
+
+    @Test
+    public void tryReadLong_bounds() {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap("10 11 -1");
+        assertDoesNotThrow(() -> assertTrue(input.tryReadLong(0, 10)));
+        assertDoesNotThrow(() -> assertFalse(input.tryReadLong(0, 10)));
+        assertDoesNotThrow(() -> assertFalse(input.tryReadLong(0, 10)));
+        assertThrows(MissingInputException.class, () -> input.tryReadLong(0, 10));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "0",
+            "-0",
+            "+2.5",
+            "1.",
+            ".125",
+            "0.1",
+            "1e10",
+            "-6.02E23",
+            "4.9e-324",
+            "1.7976931348623157e308",
+            "123456789012345678901234567890",
+            "0.30000000000000004"
+    })
+    public void tryReadDecimal_matchesJdk(final String arg) {
+        final CommandInputTokenizer doubleInput = CommandInputTokenizer.wrap(arg);
+        assertDoesNotThrow(() -> assertTrue(doubleInput.tryReadDouble(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)));
+        assertEquals(Double.parseDouble(arg), doubleInput.lastDouble());
+
+        final CommandInputTokenizer floatInput = CommandInputTokenizer.wrap(arg);
+        assertDoesNotThrow(() -> assertTrue(floatInput.tryReadFloat(Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY)));
+        assertEquals(Float.parseFloat(arg), (float) floatInput.lastDouble());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            ".",
+            "-.",
+            "1e",
+            "1e+",
+            "1.2.3",
+            "1e5.5",
+            "0x10",
+            "NaN",
+            "Infinity",
+            "1d"
+    })
+    public void tryReadDouble_invalid(final String arg) {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap(arg);
+        assertDoesNotThrow(() -> assertFalse(input.tryReadDouble(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY)));
+    }
+
+    @Test
+    public void tryReadDouble_bounds() {
+        final CommandInputTokenizer input = CommandInputTokenizer.wrap("0.5 1.5");
+        assertDoesNotThrow(() -> assertTrue(input.tryReadDouble(0, 1)));
+        assertEquals(0.5, input.lastDouble());
+        assertDoesNotThrow(() -> assertFalse(input.tryReadDouble(0, 1)));
+    }
 }
@@ -5,19 +5,36 @@ import grapefruit.command.argument.CommandChain;
 import grapefruit.command.argument.CommandChainFactory;
 import grapefruit.command.dispatcher.CommandContext;
 
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 public class TestCommandModule implements CommandModule<Object> {
     private final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory;
+    private final Consumer<CommandContext<Object>> handler;
 
-    private TestCommandModule(final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory) {
+    private TestCommandModule(
+            final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory,
+            final Consumer<CommandContext<Object>> handler
+    ) {
         this.chainFactory = chainFactory;
+        this.handler = handler;
+    }
+
+    private TestCommandModule(final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory) {
+        this(chainFactory, context -> {});
     }
 
     public static TestCommandModule of(final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory) {
         return new TestCommandModule(chainFactory);
     }
 
+    public static TestCommandModule of(
+            final Function<CommandChainFactory<Object>, CommandChain<Object>> chainFactory,
+            final Consumer<CommandContext<Object>> handler
+    ) {
+        return new TestCommandModule(chainFactory, handler);
+    }
+
     public static TestCommandModule computed(final CommandChain<Object> chain) {
         return new TestCommandModule(x -> chain);
     }
@@ -33,6 +50,6 @@ public class TestCommandModule implements CommandModule<Object> {
 
     @Override
     public void execute(final CommandContext<Object> context) {
-        // Do nothing
+        this.handler.accept(context);
     }
 }
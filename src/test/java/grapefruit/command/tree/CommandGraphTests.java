@@ -8,8 +8,13 @@ import grapefruit.command.completion.CompletionFactory;
 import grapefruit.command.dispatcher.input.CommandInputTokenizer;
 import grapefruit.command.mock.EmptyCommandChain;
 import grapefruit.command.mock.TestCommandModule;
+import grapefruit.command.tree.node.CommandNode;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -210,4 +215,134 @@ public class CommandGraphTests {
         graph.insert(chain, command);
         assertDoesNotThrow(() -> assertEquals(command, graph.query(CommandInputTokenizer.wrap("test"))));
     }
+
+    @Test
+    public void query_aliasIgnoreCase() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        final CommandChain<Object> chain = factory.newChain()
+                .then(factory.literal("test").aliases("tst", "Alias").build())
+                .then(factory.literal("nested").build()).build();
+        final CommandModule<Object> command = TestCommandModule.computed(chain);
+
+        graph.insert(chain, command);
+        assertDoesNotThrow(() -> assertEquals(command, graph.query(CommandInputTokenizer.wrap("TEST nested"))));
+        assertDoesNotThrow(() -> assertEquals(command, graph.query(CommandInputTokenizer.wrap("tSt nested"))));
+        assertDoesNotThrow(() -> assertEquals(command, graph.query(CommandInputTokenizer.wrap("alias NESTED"))));
+    }
+
+    @Test
+    public void query_mergedAliases() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        final CommandChain<Object> chain0 = factory.newChain()
+                .then(factory.literal("test").build())
+                .then(factory.literal("first").build()).build();
+        final CommandChain<Object> chain1 = factory.newChain()
+                .then(factory.literal("test").aliases("t").build())
+                .then(factory.literal("second").build()).build();
+        final CommandModule<Object> command0 = TestCommandModule.computed(chain0);
+        final CommandModule<Object> command1 = TestCommandModule.computed(chain1);
+
+        graph.insert(chain0, command0);
+        graph.insert(chain1, command1);
+        assertDoesNotThrow(() -> assertEquals(command0, graph.query(CommandInputTokenizer.wrap("t first"))));
+        assertDoesNotThrow(() -> assertEquals(command1, graph.query(CommandInputTokenizer.wrap("T second"))));
+
+        graph.delete(chain0);
+        assertThrows(NoSuchCommandException.class, () -> graph.query(CommandInputTokenizer.wrap("t first")));
+        assertDoesNotThrow(() -> assertEquals(command1, graph.query(CommandInputTokenizer.wrap("test second"))));
+    }
+
+    @Test
+    public void snapshot_isImmutable() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        final CommandChain<Object> chain0 = factory.newChain()
+                .then(factory.literal("test").build())
+                .then(factory.literal("first").build()).build();
+        final CommandChain<Object> chain1 = factory.newChain()
+                .then(factory.literal("test").build())
+                .then(factory.literal("second").build()).build();
+
+        graph.insert(chain0, TestCommandModule.computed(chain0));
+        final CommandGraph<Object> snapshot = graph.snapshot();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.insert(chain1, TestCommandModule.computed(chain1)));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.delete(chain0));
+    }
+
+    @Test
+    public void snapshot_isolatedFromSource() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        final CommandChain<Object> chain0 = factory.newChain()
+                .then(factory.literal("test").aliases("t").build()).build();
+        final CommandChain<Object> chain1 = factory.newChain()
+                .then(factory.literal("other").build()).build();
+        final CommandModule<Object> command0 = TestCommandModule.computed(chain0);
+
+        graph.insert(chain0, command0);
+        final CommandGraph<Object> snapshot = graph.snapshot();
+        graph.delete(chain0);
+        graph.insert(chain1, TestCommandModule.computed(chain1));
+
+        assertDoesNotThrow(() -> assertEquals(command0, snapshot.query(CommandInputTokenizer.wrap("T"))));
+        assertThrows(NoSuchCommandException.class, () -> snapshot.query(CommandInputTokenizer.wrap("other")));
+    }
+
+    @Test
+    public void complete_prefixIgnoreCase() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        for (final String name : List.of("apple", "Apricot", "banana", "aPex")) {
+            final CommandChain<Object> chain = factory.newChain().then(factory.literal(name).build()).build();
+            graph.insert(chain, TestCommandModule.computed(chain));
+        }
+
+        final CommandChain<Object> chain = factory.newChain().then(factory.literal("berry").aliases("APX").build()).build();
+        graph.insert(chain, TestCommandModule.computed(chain));
+
+        assertEquals(List.of("aPex", "apple", "Apricot", "APX"), graph.complete(CommandInputTokenizer.wrap("Ap")).left().orElseThrow());
+        assertEquals(List.of("apple"), graph.complete(CommandInputTokenizer.wrap("APPL")).left().orElseThrow());
+        assertEquals(List.of(), graph.complete(CommandInputTokenizer.wrap("c")).left().orElseThrow());
+        assertEquals(6, graph.complete(CommandInputTokenizer.wrap("")).left().orElseThrow().size());
+        assertEquals(6, graph.snapshot().complete(CommandInputTokenizer.wrap("")).left().orElseThrow().size());
+        assertEquals(List.of("banana", "berry"), graph.snapshot().complete(CommandInputTokenizer.wrap("b")).left().orElseThrow());
+    }
+
+    @Test
+    public void complete_indexUpdatedOnDelete() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        final CommandChain<Object> chain0 = factory.newChain().then(factory.literal("test").build()).build();
+        final CommandChain<Object> chain1 = factory.newChain().then(factory.literal("temp").build()).build();
+        graph.insert(chain0, TestCommandModule.computed(chain0));
+        graph.insert(chain1, TestCommandModule.computed(chain1));
+
+        assertEquals(List.of("temp", "test"), graph.complete(CommandInputTokenizer.wrap("te")).left().orElseThrow());
+        graph.delete(chain1);
+        assertEquals(List.of("test"), graph.complete(CommandInputTokenizer.wrap("te")).left().orElseThrow());
+    }
+
+    @Test
+    public void query_noSuchCommand_alternatives() {
+        final CommandGraph<Object> graph = graph();
+        final CommandChainFactory<Object> factory = CommandChain.factory();
+        final CommandChain<Object> chain1 = factory.newChain()
+                .then(factory.literal("test").build()).build();
+        final CommandChain<Object> chain2 = factory.newChain()
+                .then(factory.literal("other").build()).build();
+
+        graph.insert(chain1, TestCommandModule.dummy());
+        graph.insert(chain2, TestCommandModule.dummy());
+        final NoSuchCommandException ex = assertThrows(NoSuchCommandException.class, () -> graph.query(CommandInputTokenizer.wrap("hello world")));
+
+        assertEquals(Set.of("test", "other"), ex.alternatives().stream().map(CommandNode::name).collect(Collectors.toSet()));
+        // Deleting a command after the alternatives were requested doesn't affect them
+        graph.delete(chain2);
+        assertEquals(Set.of("test", "other"), ex.alternatives().stream().map(CommandNode::name).collect(Collectors.toSet()));
+        assertEquals("hello", ex.argument());
+        assertEquals(" world", ex.remaining());
+    }
 }
@@ -0,0 +1,56 @@
+package grapefruit.command.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpiringCacheTests {
+
+    @Test
+    public void get_expired() {
+        final AtomicLong time = new AtomicLong();
+        final ExpiringCache<String, String> cache = ExpiringCache.create(4, Duration.ofNanos(10), time::get);
+        cache.put("key", "value");
+        time.set(9);
+        assertEquals("value", cache.get("key"));
+        time.set(10);
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsed() {
+        final ExpiringCache<String, String> cache = ExpiringCache.create(2, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    public void invalidateIf() {
+        final ExpiringCache<String, String> cache = ExpiringCache.create(4, Duration.ofMinutes(1));
+        cache.put("a", "1");
+        cache.put("ab", "2");
+        cache.put("b", "3");
+        cache.invalidateIf(x -> x.startsWith("a"));
+        assertEquals(1, cache.size());
+        assertEquals("3", cache.get("b"));
+    }
+
+    @Test
+    public void create_invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> ExpiringCache.create(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> ExpiringCache.create(1, Duration.ZERO));
+    }
+}
@@ -7,7 +7,9 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class StringUtilTests {
@@ -70,6 +72,22 @@ public class StringUtilTests {
         assertFalse(StringUtil.startsWithIgnoreCase(arg, prefix));
     }
 
+    @ParameterizedTest
+    @CsvSource({
+            "hello,HeLLo",
+            "world,WORLD",
+            "test,test"
+    })
+    public void foldCase_equalsIgnoreCase(final String arg, final String other) {
+        assertEquals(StringUtil.foldCase(arg), StringUtil.foldCase(other));
+    }
+
+    @Test
+    public void foldCase_alreadyFolded() {
+        final String arg = "hello";
+        assertSame(arg, StringUtil.foldCase(arg));
+    }
+
     @ParameterizedTest
     @ValueSource(strings = {
             "Hello World",